@@ -36,10 +36,12 @@ import java.io.IOException;
 import logic.Token;
 import logic.factory.PopOutFactory;
 import logic.factory.ConnectFourFactory;
+import logic.factory.ConnectNFactory;
 import logic.factory.GravityFactory;
 import logic.factory.LogicFactory;
 import logic.game.Game;
 import logic.player.Player;
+import logic.search.SearchSettings;
 
 public class Application {
 
@@ -47,19 +49,36 @@ public class Application {
   private LogicFactory _logicFactory;
   private InterfaceFactory _interfaceFactory;
   private GameInterface _gameInterface;
+  private SearchSettings _redSettings = new SearchSettings();
+  private SearchSettings _yellowSettings = new SearchSettings();
 
   public boolean init(GameType gameType, GameMode gameMode,
       PlayerType redPlayerType, PlayerType yellowPlayerType, int columns,
-      int rows) {
+      int rows, int connectLength) {
     try {
 
-      createLogicFactory(gameType);
+      createLogicFactory(gameType, connectLength);
       createInterfaceFactory(gameMode);
 
+      // Computer players think on the time of human opponents, which would
+      // be wasted otherwise
+      if (yellowPlayerType == PlayerType.HUMAN) {
+        _redSettings = getPonderingSettings(_redSettings);
+      }
+      if (redPlayerType == PlayerType.HUMAN) {
+        _yellowSettings = getPonderingSettings(_yellowSettings);
+      }
+      if (isLevel(redPlayerType)) {
+        _redSettings = getLevelSettings(_redSettings, redPlayerType);
+      }
+      if (isLevel(yellowPlayerType)) {
+        _yellowSettings = getLevelSettings(_yellowSettings, yellowPlayerType);
+      }
+
       Player redPlayer = createRedPlayer(redPlayerType);
       Player yellowPlayer = createYellowPlayer(yellowPlayerType);
 
-      configureGame(columns, rows, redPlayer, yellowPlayer);
+      configureGame(columns, rows, connectLength, redPlayer, yellowPlayer);
       configureGameInterface(gameType);
 
       _game.setAskPlayAgain(_gameInterface.getAskPlayAgain());
@@ -70,18 +89,29 @@ public class Application {
     return true;
   }
 
+  // To be set before init, which creates the computer players
+  public void setSearchSettings(Token color, SearchSettings searchSettings) {
+    if (color == Token.RED) {
+      _redSettings = searchSettings;
+    } else {
+      _yellowSettings = searchSettings;
+    }
+  }
+
   public void run() {
     _game.run();
   }
 
-  private void createLogicFactory(GameType gameType) {
+  private void createLogicFactory(GameType gameType, int connectLength) {
     if (gameType == GameType.CONNECT4) {
       _logicFactory = new ConnectFourFactory();
     } else {
       if (gameType == GameType.POP_OUT) {
         _logicFactory = new PopOutFactory();
+      } else if (gameType == GameType.CONNECT_N) {
+        _logicFactory = new ConnectNFactory(connectLength);
       } else {
-        _logicFactory = new GravityFactory();
+        _logicFactory = new GravityFactory(connectLength);
       }
     }
   }
@@ -94,23 +124,46 @@ public class Application {
     }
   }
 
+  private SearchSettings getPonderingSettings(SearchSettings settings) {
+    SearchSettings pondering = new SearchSettings(settings);
+
+    pondering.setPondering(true);
+    return pondering;
+  }
+
+  private boolean isLevel(PlayerType playerType) {
+    return playerType.getNodeBudget() > 0 || playerType == PlayerType.PERFECT;
+  }
+
+  // Levels play the same moves whatever the time, so thinking on the
+  // opponent's time would only make their moves depend on it
+  private SearchSettings getLevelSettings(SearchSettings settings,
+      PlayerType level) {
+    SearchSettings levelSettings = new SearchSettings(settings);
+
+    levelSettings.setNodeBudget(level.getNodeBudget());
+    levelSettings.setPerfect(level == PlayerType.PERFECT);
+    levelSettings.setPondering(false);
+    return levelSettings;
+  }
+
   private Player createRedPlayer(PlayerType playerType) {
     if (playerType == PlayerType.HUMAN) {
       return _logicFactory.createHumanPlayer(_interfaceFactory);
     }
-    return _logicFactory.createComputerPlayer(Token.RED);
+    return _logicFactory.createComputerPlayer(Token.RED, _redSettings);
   }
 
   private Player createYellowPlayer(PlayerType playerType) {
     if (playerType == PlayerType.HUMAN) {
       return _logicFactory.createHumanPlayer(_interfaceFactory);
     }
-    return _logicFactory.createComputerPlayer(Token.YELLOW);
+    return _logicFactory.createComputerPlayer(Token.YELLOW, _yellowSettings);
   }
 
-  private void configureGame(int columns, int rows, Player redPlayer,
-      Player yellowPlayer) {
-    _game = _logicFactory.createGame(columns, rows);
+  private void configureGame(int columns, int rows, int connectLength,
+      Player redPlayer, Player yellowPlayer) {
+    _game = _logicFactory.createGame(columns, rows, connectLength);
     _game.setPlayers(redPlayer, yellowPlayer);
   }
 
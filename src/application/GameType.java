@@ -28,7 +28,7 @@ package application;
 
 public enum GameType {
 
-  CONNECT4, POP_OUT, GRAVITY;
+  CONNECT4, POP_OUT, GRAVITY, CONNECT_N;
 
   public String toString() {
     if (this == CONNECT4) {
@@ -40,6 +40,9 @@ public enum GameType {
     if (this == GRAVITY) {
       return "Gravity";
     }
+    if (this == CONNECT_N) {
+      return "Connect-N";
+    }
     return "";
   }
 }
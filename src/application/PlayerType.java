@@ -27,5 +27,18 @@
 package application;
 
 public enum PlayerType {
-  HUMAN, COMPUTER
+  HUMAN(0), COMPUTER(0), EASY(1000), MEDIUM(100000), HARD(10000000),
+  PERFECT(0);
+
+  private final int _nodeBudget;
+
+  private PlayerType(int nodeBudget) {
+    _nodeBudget = nodeBudget;
+  }
+
+  // Nodes the computer players of the level search for every move. Plain
+  // and perfect computer players think for a time instead
+  public int getNodeBudget() {
+    return _nodeBudget;
+  }
 }
@@ -56,6 +56,7 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import logic.Token;
+import logic.search.SearchSettings;
 import application.Application;
 import application.Controller;
 import application.GameMode;
@@ -76,11 +77,17 @@ public class ConfigureGameWindow extends JFrame {
     private static final String WINDOW_TITLE = "Configure a new game";
     private static final String HUMAN = "Human";
     private static final String COMPUTER = "Computer";
+    private static final String EASY = "Computer, easy";
+    private static final String MEDIUM = "Computer, medium";
+    private static final String HARD = "Computer, hard";
+    private static final String PERFECT = "Computer, perfect";
     private static final String CONNECT4 = "Connect4";
     private static final String POP_OUT = "Pop Out";
     private static final String GRAVITY = "Gravity";
+    private static final String CONNECT_N = "Connect-N";
     private static final String WIDTH = "Width";
     private static final String HEIGHT = "Height";
+    private static final String CONNECT = "Tokens to connect";
     private static final String GAME_MODE = "Game Mode";
     private static final String YELLOW_PLAYER = "Yellow Player";
     private static final String RED_PLAYER = "Red Player";
@@ -92,6 +99,7 @@ public class ConfigureGameWindow extends JFrame {
     PlayerTypePanel _redPlayerTypePanel;
     GravityDimensionsPanel _widthPanel;
     GravityDimensionsPanel _heightPanel;
+    ConnectLengthPanel _connectPanel;
     JPanel _buttonsPanel;
 
     public Window _window;
@@ -101,10 +109,15 @@ public class ConfigureGameWindow extends JFrame {
     public PlayerType _yellowPlayer = PlayerType.HUMAN;
     public int _width = 10;
     public int _height = 10;
+    public int _connectLength = 4;
 
     Controller _controller;
     public boolean _isFirstConfiguration = true;
 
+    // Given on the command line, for every game configured afterwards
+    private static SearchSettings _redSettings = new SearchSettings();
+    private static SearchSettings _yellowSettings = new SearchSettings();
+
     public ConfigureGameWindow(Controller controller, boolean isFirstConfiguration, Window window) {
 	super(WINDOW_TITLE);
 	_parent = this;
@@ -151,7 +164,12 @@ public class ConfigureGameWindow extends JFrame {
 	c.gridy = 3;
 	content.add(_heightPanel, c);
 
+	_connectPanel = new ConnectLengthPanel(CONNECT);
+	_connectPanel.setVisible(false);
 	c.gridy = 4;
+	content.add(_connectPanel, c);
+
+	c.gridy = 5;
 	content.add(new JSeparator(SwingConstants.HORIZONTAL), c);
 
 	JPanel playersPanel = new JPanel();
@@ -171,11 +189,11 @@ public class ConfigureGameWindow extends JFrame {
 	c.gridx = 2;
 	playersPanel.add(_redPlayerTypePanel, c);
 
-	c.gridy = 5;
+	c.gridy = 6;
 	content.add(new JSeparator(SwingConstants.HORIZONTAL), c);
 
 	c.gridx = 0;
-	c.gridy = 6;
+	c.gridy = 7;
 	content.add(playersPanel, c);
 
 	c.fill = GridBagConstraints.HORIZONTAL;
@@ -192,8 +210,10 @@ public class ConfigureGameWindow extends JFrame {
 		}
 		closeWindow();
 		final Application app = new Application();
+		app.setSearchSettings(Token.RED, _redSettings);
+		app.setSearchSettings(Token.YELLOW, _yellowSettings);
 		if (app.init(_gameType, _gameMode, _redPlayer, _yellowPlayer,
-			_width, _height)) {
+			_width, _height, _connectLength)) {
 
 		    SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
 			protected Void doInBackground() throws Exception {
@@ -214,7 +234,7 @@ public class ConfigureGameWindow extends JFrame {
 	    e1.printStackTrace();
 	}
 
-	c.gridy = 7;
+	c.gridy = 8;
 	content.add(new JSeparator(SwingConstants.HORIZONTAL), c);
 
 	_buttonsPanel.add(acceptButton, BorderLayout.EAST);
@@ -222,7 +242,7 @@ public class ConfigureGameWindow extends JFrame {
 		Color.BLACK));
 	_buttonsPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
 	c.fill = GridBagConstraints.NONE;
-	c.gridy = 8;
+	c.gridy = 9;
 	c.anchor = GridBagConstraints.EAST;
 	content.add(_buttonsPanel, c);
 
@@ -237,6 +257,15 @@ public class ConfigureGameWindow extends JFrame {
 	setVisible(false);
     }
 
+    public static void setSearchSettings(Token color,
+	    SearchSettings searchSettings) {
+	if (color == Token.RED) {
+	    _redSettings = searchSettings;
+	} else {
+	    _yellowSettings = searchSettings;
+	}
+    }
+
     class GameTypePanel extends JPanel implements ActionListener {
 
 	private static final long serialVersionUID = 1L;
@@ -281,21 +310,29 @@ public class ConfigureGameWindow extends JFrame {
 	    gravityButton.setActionCommand(GRAVITY);
 	    gravityButton.setSelected(false);
 
+	    JRadioButton connectNButton = new JRadioButton(CONNECT_N);
+	    connectNButton.setMnemonic(KeyEvent.VK_N);
+	    connectNButton.setActionCommand(CONNECT_N);
+	    connectNButton.setSelected(false);
+
 	    ButtonGroup gameTypeButtonGroup = new ButtonGroup();
 	    gameTypeButtonGroup.add(connect4Button);
 	    gameTypeButtonGroup.add(popOutButton);
 	    gameTypeButtonGroup.add(gravityButton);
+	    gameTypeButtonGroup.add(connectNButton);
 
 	    // Register a listener for the radio buttons.
 	    connect4Button.addActionListener(this);
 	    popOutButton.addActionListener(this);
 	    gravityButton.addActionListener(this);
+	    connectNButton.addActionListener(this);
 
 	    // Put the radio buttons in a column in a panel.
 	    JPanel radioPanel = new JPanel(new GridLayout(0, 1));
 	    radioPanel.add(connect4Button);
 	    radioPanel.add(popOutButton);
 	    radioPanel.add(gravityButton);
+	    radioPanel.add(connectNButton);
 	    radioPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
 
 	    c.gridy = 1;
@@ -311,18 +348,30 @@ public class ConfigureGameWindow extends JFrame {
 		_gameType = GameType.CONNECT4;
 		_widthPanel.setVisible(false);
 		_heightPanel.setVisible(false);
+		_connectPanel.setVisible(false);
 	    } else {
 		if (button.getText().equals(POP_OUT)) {
 		    _gameType = GameType.POP_OUT;
 		    _widthPanel.setVisible(false);
 		    _heightPanel.setVisible(false);
+		    _connectPanel.setVisible(false);
 		} else {
-		    _gameType = GameType.GRAVITY;
+		    if (button.getText().equals(CONNECT_N)) {
+			_gameType = GameType.CONNECT_N;
+		    } else {
+			_gameType = GameType.GRAVITY;
+		    }
 		    _widthPanel.setVisible(true);
 		    _heightPanel.setVisible(true);
+		    _connectPanel.setVisible(true);
 		}
 	    }
 
+	    // Only the connect4 board can be solved
+	    _yellowPlayerTypePanel
+		    .setPerfectEnabled(_gameType == GameType.CONNECT4);
+	    _redPlayerTypePanel.setPerfectEnabled(_gameType == GameType.CONNECT4);
+
 	    _parent.repaint();
 	    _parent.pack();
 	}
@@ -333,6 +382,8 @@ public class ConfigureGameWindow extends JFrame {
 	private static final long serialVersionUID = 1L;
 
 	Token _color;
+	JRadioButton _computerButton;
+	JRadioButton _perfectButton;
 
 	public PlayerTypePanel(String labelString, Token color) {
 	    super(new GridBagLayout());
@@ -373,19 +424,51 @@ public class ConfigureGameWindow extends JFrame {
 	    computerButton.setMnemonic(KeyEvent.VK_C);
 	    computerButton.setActionCommand(COMPUTER);
 	    computerButton.setSelected(false);
+	    _computerButton = computerButton;
+
+	    // Levels search a fixed number of nodes for every move
+	    JRadioButton easyButton = new JRadioButton(EASY);
+	    easyButton.setMnemonic(KeyEvent.VK_E);
+	    easyButton.setActionCommand(EASY);
+
+	    JRadioButton mediumButton = new JRadioButton(MEDIUM);
+	    mediumButton.setMnemonic(KeyEvent.VK_M);
+	    mediumButton.setActionCommand(MEDIUM);
+
+	    JRadioButton hardButton = new JRadioButton(HARD);
+	    hardButton.setMnemonic(KeyEvent.VK_A);
+	    hardButton.setActionCommand(HARD);
+
+	    // Solves the positions of the standard connect4 board
+	    JRadioButton perfectButton = new JRadioButton(PERFECT);
+	    perfectButton.setMnemonic(KeyEvent.VK_P);
+	    perfectButton.setActionCommand(PERFECT);
+	    _perfectButton = perfectButton;
 
 	    ButtonGroup playerTypeButtonGroup = new ButtonGroup();
 	    playerTypeButtonGroup.add(humanButton);
 	    playerTypeButtonGroup.add(computerButton);
+	    playerTypeButtonGroup.add(easyButton);
+	    playerTypeButtonGroup.add(mediumButton);
+	    playerTypeButtonGroup.add(hardButton);
+	    playerTypeButtonGroup.add(perfectButton);
 
 	    // Register a listener for the radio buttons.
 	    humanButton.addActionListener(this);
 	    computerButton.addActionListener(this);
+	    easyButton.addActionListener(this);
+	    mediumButton.addActionListener(this);
+	    hardButton.addActionListener(this);
+	    perfectButton.addActionListener(this);
 
 	    // Put the radio buttons in a column in a panel.
 	    JPanel radioPanel = new JPanel(new GridLayout(0, 1));
 	    radioPanel.add(humanButton);
 	    radioPanel.add(computerButton);
+	    radioPanel.add(easyButton);
+	    radioPanel.add(mediumButton);
+	    radioPanel.add(hardButton);
+	    radioPanel.add(perfectButton);
 
 	    c.gridx = 0;
 	    c.gridy = 1;
@@ -397,23 +480,51 @@ public class ConfigureGameWindow extends JFrame {
 
 	public void actionPerformed(ActionEvent e) {
 	    JRadioButton button = (JRadioButton) e.getSource();
-	    if (button.getText().equals(HUMAN)) {
+	    PlayerType playerType = getPlayerType(button.getText());
+
+	    if (playerType != null) {
 		if (_color == Token.RED) {
-		    _redPlayer = PlayerType.HUMAN;
+		    _redPlayer = playerType;
 		} else {
-		    _yellowPlayer = PlayerType.HUMAN;
+		    _yellowPlayer = playerType;
 		}
-	    } else {
+	    }
+	}
 
-		if (button.getText().equals(COMPUTER)) {
-		    if (_color == Token.RED) {
-			_redPlayer = PlayerType.COMPUTER;
-		    } else {
-			_yellowPlayer = PlayerType.COMPUTER;
-		    }
+	// A perfect player no longer offered becomes a timed one
+	void setPerfectEnabled(boolean enabled) {
+	    _perfectButton.setEnabled(enabled);
+	    if (!enabled && _perfectButton.isSelected()) {
+		_computerButton.setSelected(true);
+		if (_color == Token.RED) {
+		    _redPlayer = PlayerType.COMPUTER;
+		} else {
+		    _yellowPlayer = PlayerType.COMPUTER;
 		}
 	    }
 	}
+
+	private PlayerType getPlayerType(String text) {
+	    if (text.equals(HUMAN)) {
+		return PlayerType.HUMAN;
+	    }
+	    if (text.equals(COMPUTER)) {
+		return PlayerType.COMPUTER;
+	    }
+	    if (text.equals(EASY)) {
+		return PlayerType.EASY;
+	    }
+	    if (text.equals(MEDIUM)) {
+		return PlayerType.MEDIUM;
+	    }
+	    if (text.equals(HARD)) {
+		return PlayerType.HARD;
+	    }
+	    if (text.equals(PERFECT)) {
+		return PlayerType.PERFECT;
+	    }
+	    return null;
+	}
     }
 
     class GravityDimensionsPanel extends JPanel implements ChangeListener {
@@ -465,4 +576,42 @@ public class ConfigureGameWindow extends JFrame {
 	    }
 	}
     }
+
+    class ConnectLengthPanel extends JPanel implements ChangeListener {
+
+	private static final long serialVersionUID = 1L;
+	static final int MIN_VALUE = 3;
+	static final int MAX_VALUE = 8;
+	static final int INIT_VALUE = 4;
+
+	public ConnectLengthPanel(String labelString) {
+
+	    JLabel label = new JLabel(labelString);
+	    label.setFont(new Font("inherit", Font.BOLD, 12));
+
+	    JSlider connect = new JSlider(JSlider.HORIZONTAL, MIN_VALUE,
+		    MAX_VALUE, INIT_VALUE);
+
+	    connect.addChangeListener(this);
+	    connect.setMajorTickSpacing(1);
+	    connect.setMinorTickSpacing(1);
+	    connect.setPaintTicks(true);
+	    connect.setPaintLabels(true);
+	    Font font = new Font("inherit", Font.PLAIN, 8);
+	    connect.setFont(font);
+	    connect.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
+
+	    add(label);
+	    add(connect);
+
+	    setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+	}
+
+	public void stateChanged(ChangeEvent e) {
+	    JSlider source = (JSlider) e.getSource();
+	    if (!source.getValueIsAdjusting()) {
+		_connectLength = source.getValue();
+	    }
+	}
+    }
 }
@@ -80,6 +80,14 @@ public class Instructions {
 	    + "In that case, the resulting position for the token will be computed \n"
 	    + "as the sum of all the gravity forces applied on the token.\n";
 
+    private static final String CONNECT_N = "CONNECT-N\n\n"
+	    + "The Connect-N is a variation of Connect4 in which players, \n"
+	    + "alternating turns, drop tokens in a vertical board whose number \n"
+	    + "of columns and rows are comprised between 5 and 15. \n"
+	    + "The goal is to connect from 3 to 8 pieces of your color, \n"
+	    + "as chosen before the game starts, either vertically, \n"
+	    + "horizontally or diagonally.\n\n";
+
     private String _message = "";
 
     public Instructions(GameType gameType) {
@@ -92,6 +100,9 @@ public class Instructions {
 	if (gameType == GameType.GRAVITY) {
 	    _message = GRAVITY;
 	}
+	if (gameType == GameType.CONNECT_N) {
+	    _message = CONNECT_N;
+	}
     }
 
     public JButton getButton(final JOptionPane optionPane, String text,
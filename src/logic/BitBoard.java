@@ -0,0 +1,204 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic;
+
+import logic.strategy.TokenMoveStrategy;
+
+public class BitBoard extends Board {
+
+  // Column-major layout with one sentinel bit on top of every column, so
+  // shifting a whole line never wraps from one column into the next:
+  //
+  //   6 13 20 27 34 41 48
+  //   5 12 19 26 33 40 47
+  //   4 11 18 25 32 39 46
+  //   3 10 17 24 31 38 45
+  //   2  9 16 23 30 37 44
+  //   1  8 15 22 29 36 43
+  //   0  7 14 21 28 35 42
+  public static final int MAX_BITS = 64;
+
+  protected long _yellowBits;
+  protected long _redBits;
+  protected int _stride;
+
+  public BitBoard() {
+    this(7, 6, null);
+  }
+
+  public BitBoard(int width, int height, TokenMoveStrategy strategy) {
+    this(width, height, 4, strategy);
+  }
+
+  public BitBoard(int width, int height, int connectLength,
+      TokenMoveStrategy strategy) {
+    super(width, height, connectLength, strategy);
+
+    if (!fits(width, height)) {
+      throw new IllegalArgumentException("Board " + width + "x" + height
+          + " does not fit in a single bitboard");
+    }
+    _stride = height + 1;
+    _yellowBits = 0L;
+    _redBits = 0L;
+  }
+
+  public static boolean fits(int width, int height) {
+    return width * (height + 1) <= MAX_BITS;
+  }
+
+  public void resetBoard() {
+    super.resetBoard();
+    _yellowBits = 0L;
+    _redBits = 0L;
+  }
+
+  public Token getSlot(int column, int row) {
+    if (isValidColumn(column) && isValidRow(row)) {
+      long bit = bit(column, row);
+
+      if ((_yellowBits & bit) != 0) {
+        return Token.YELLOW;
+      }
+      if ((_redBits & bit) != 0) {
+        return Token.RED;
+      }
+    }
+    return Token.NONE;
+  }
+
+  public void setCell(int column, int row, Token color) {
+    long bit = bit(column, row);
+
+    _yellowBits &= ~bit;
+    _redBits &= ~bit;
+    if (color == Token.YELLOW) {
+      _yellowBits |= bit;
+    } else if (color == Token.RED) {
+      _redBits |= bit;
+    }
+    super.setCell(column, row, color);
+  }
+
+  public boolean isColumnFull(int column) {
+    return isValidColumn(column)
+        && ((_yellowBits | _redBits) & bit(column, 0)) != 0;
+  }
+
+  protected Board createEmptyBoard() {
+    return new BitBoard(_width, _height, _connectLength, _strategy);
+  }
+
+  public void setGrid(Token[][] grid) {
+    super.setGrid(grid);
+
+    _yellowBits = 0L;
+    _redBits = 0L;
+    for (int column = 0; column < _width; column++) {
+      for (int row = 0; row < _height; row++) {
+        if (_grid[column][row] == Token.YELLOW) {
+          _yellowBits |= bit(column, row);
+        } else if (_grid[column][row] == Token.RED) {
+          _redBits |= bit(column, row);
+        }
+      }
+    }
+  }
+
+  public long getBits(Token color) {
+    if (color == Token.YELLOW) {
+      return _yellowBits;
+    }
+    if (color == Token.RED) {
+      return _redBits;
+    }
+    return 0L;
+  }
+
+  public boolean fourTokensConnected(Token color) {
+    long bits = getBits(color);
+    return connected(bits, 1) || connected(bits, _stride)
+        || connected(bits, _stride - 1) || connected(bits, _stride + 1);
+  }
+
+  public boolean fourTokensConnected(Token color, int column, int row) {
+    long bits = getBits(color);
+
+    if (isValidCell(column, row) && (bits & bit(column, row)) != 0) {
+
+      // Every line through the cell is a precomputed mask
+      for (int line : _lines.getLinesThrough(column, row)) {
+        long mask = _lines.getMask(line, 0);
+
+        if ((bits & mask) == mask) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  public void updateConnections(int column, int row) {
+    // The shift-and-mask check is cheaper than keeping the cache up to date
+  }
+
+  public void updateConnectionsInColumn(int column) {
+    // Connections are computed from the bitboards when they are asked for
+  }
+
+  public boolean fourTokensConnectedHorizontally(Token color) {
+    return connected(getBits(color), _stride);
+  }
+
+  public boolean fourTokensConnectedVertically(Token color) {
+    return connected(getBits(color), 1);
+  }
+
+  public boolean connectedRightDiagonally(Token color) {
+    // Rows grow downwards in the grid, so going right means going down here
+    return connected(getBits(color), _stride - 1);
+  }
+
+  public boolean connectedLeftDiagonally(Token color) {
+    return connected(getBits(color), _stride + 1);
+  }
+
+  protected long bit(int column, int row) {
+    return 1L << (column * _stride + (_height - 1 - row));
+  }
+
+  private boolean connected(long bits, int shift) {
+    long line = bits;
+    long shifted = bits;
+
+    for (int i = 1; i < _connectLength && line != 0; i++) {
+      shifted >>>= shift;
+      line &= shifted;
+    }
+    return line != 0;
+  }
+}
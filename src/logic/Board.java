@@ -26,6 +26,8 @@
  */
 package logic;
 
+import java.util.Arrays;
+
 import exception.InvalidMove;
 import logic.strategy.TokenMoveStrategy;
 
@@ -37,30 +39,84 @@ public class Board {
   protected int[] _chipsInColumn;
   protected int _width;
   protected int _height;
+  protected int _connectLength;
+  protected LineTable _lines;
+  protected ZobristTable _zobrist;
+  protected long _hashKey;
+
+  // Keys of the position seen through every other symmetry of the variant,
+  // kept like the hash key, and the slot each symmetry sends every slot to
+  protected long[] _symmetricKeys;
+  protected int[] _symmetricSlots;
+
+  // Occupied slots of every row, column and diagonal, one bit per slot
+  protected int[] _rowTokens;
+  protected int[] _columnTokens;
+  protected int[] _diagonalTokens;
+  protected int[] _antiDiagonalTokens;
+
+  // Tokens of each color in every line, kept up to date by setCell once the
+  // board has been evaluated, and the evaluation for yellow they add up to.
+  // Scores of the lines are indexed by yellow * (connect length + 1) + red
+  protected int[] _yellowInLine;
+  protected int[] _redInLine;
+  protected int _evaluation;
+  private int[] _lineScores;
+  private boolean _evaluated;
+
+  // Slots already seen by a move generator, so it does not allocate
+  private int[] _marks;
+  private int _mark;
+
+  protected int[] _undoRecords;
+  protected int _undoSize;
   protected TokenMoveStrategy _strategy;
 
-  public Board() {
-    _height = 6;
-    _width = 7;
-    _grid = new Token[_width][_height];
+  // Connections are kept up to date by the strategies after every move, so
+  // asking for a winner does not need to scan the whole board
+  protected boolean _yellowConnected;
+  protected boolean _redConnected;
+  protected boolean _connectionsKnown;
 
-    for (int column = 0; column < _width; column++) {
-      for (int row = 0; row < _height; row++) {
-        _grid[column][row] = Token.NONE;
-      }
-    }
-    _chipsInColumn = new int[_width];
-
-    for (int column = 0; column < _width; column++) {
-      _chipsInColumn[column] = 0;
-    }
-    _tokens = 0;
+  public Board() {
+    this(7, 6, 4, null);
   }
 
   public Board(int width, int height, TokenMoveStrategy strategy) {
+    this(width, height, 4, strategy);
+  }
+
+  public Board(int width, int height, int connectLength,
+      TokenMoveStrategy strategy) {
     _height = height;
     _width = width;
+    _connectLength = connectLength;
+    _lines = LineTable.getInstance(width, height, connectLength);
+    _zobrist = ZobristTable.getInstance(width, height);
     _strategy = strategy;
+    _undoRecords = new int[2 * width * height];
+    _marks = new int[width * height];
+
+    int symmetries = strategy == null ? 1 : strategy.getSymmetries(width,
+        height);
+
+    _symmetricKeys = new long[symmetries - 1];
+    _symmetricSlots = new int[(symmetries - 1) * width * height];
+    for (int symmetry = 1; symmetry < symmetries; symmetry++) {
+      for (int column = 0; column < width; column++) {
+        for (int row = 0; row < height; row++) {
+          int slot = ((symmetry - 1) * width + column) * height + row;
+          _symmetricSlots[slot] = getSymmetricSlot(symmetry, column, row);
+        }
+      }
+    }
+    _rowTokens = new int[height];
+    _columnTokens = new int[width];
+    _diagonalTokens = new int[width + height - 1];
+    _antiDiagonalTokens = new int[width + height - 1];
+    _yellowInLine = new int[_lines.getLines()];
+    _redInLine = new int[_lines.getLines()];
+    _lineScores = createLineScores(connectLength);
 
     _grid = new Token[_width][_height];
 
@@ -75,6 +131,9 @@ public class Board {
       _chipsInColumn[column] = 0;
     }
     _tokens = 0;
+    _hashKey = 0L;
+    _undoSize = 0;
+    resetConnections();
   }
 
   public void resetBoard() {
@@ -89,6 +148,12 @@ public class Board {
       _chipsInColumn[column] = 0;
     }
     _tokens = 0;
+    _hashKey = 0L;
+    _undoSize = 0;
+    resetConnections();
+    resetOccupancy();
+    countLines();
+    Arrays.fill(_symmetricKeys, 0L);
   }
 
   public Token getSlot(int column, int row) {
@@ -99,13 +164,183 @@ public class Board {
   }
 
   public void setCell(int column, int row, Token color) {
+    Token previous = _grid[column][row];
+
+    _hashKey ^= _zobrist.getKey(previous, column, row)
+        ^ _zobrist.getKey(color, column, row);
+    if ((previous == Token.NONE) != (color == Token.NONE)) {
+      toggleOccupancy(column, row);
+    }
+    if (_symmetricKeys.length > 0) {
+      updateSymmetricKeys(column * _height + row, previous, color);
+    }
+    if (_evaluated && previous != color) {
+      updateLines(column, row, previous, color);
+    }
     _grid[column][row] = color;
   }
 
+  // Every line that only one color can still complete counts for that
+  // color, four times more for each token already in it. The score is kept
+  // for yellow and only the lines through a changed slot are looked at.
+  // Boards that are never evaluated, as in random playouts, skip it
+  public int getEvaluation(Token color) {
+    if (!_evaluated) {
+      _evaluated = true;
+      countLines();
+    }
+    return color == Token.RED ? -_evaluation : _evaluation;
+  }
+
+  private void updateLines(int column, int row, Token previous, Token color) {
+    int stride = _connectLength + 1;
+
+    for (int line : _lines.getLinesThrough(column, row)) {
+      int yellow = _yellowInLine[line];
+      int red = _redInLine[line];
+
+      _evaluation -= _lineScores[yellow * stride + red];
+      if (previous == Token.YELLOW) {
+        yellow--;
+      } else if (previous == Token.RED) {
+        red--;
+      }
+      if (color == Token.YELLOW) {
+        yellow++;
+      } else if (color == Token.RED) {
+        red++;
+      }
+      _evaluation += _lineScores[yellow * stride + red];
+      _yellowInLine[line] = yellow;
+      _redInLine[line] = red;
+    }
+  }
+
+  private void countLines() {
+    Arrays.fill(_yellowInLine, 0);
+    Arrays.fill(_redInLine, 0);
+    _evaluation = 0;
+    for (int column = 0; column < _width; column++) {
+      for (int row = 0; row < _height; row++) {
+        if (_grid[column][row] != Token.NONE) {
+          updateLines(column, row, Token.NONE, _grid[column][row]);
+        }
+      }
+    }
+  }
+
+  private static int[] createLineScores(int connectLength) {
+    int stride = connectLength + 1;
+    int[] scores = new int[stride * stride];
+
+    for (int yellow = 1; yellow <= connectLength; yellow++) {
+      scores[yellow * stride] = 1 << (2 * (yellow - 1));
+    }
+    for (int red = 1; red <= connectLength; red++) {
+      scores[red] = -(1 << (2 * (red - 1)));
+    }
+    return scores;
+  }
+
+  public int getRowTokens(int row) {
+    return _rowTokens[row];
+  }
+
+  public int getColumnTokens(int column) {
+    return _columnTokens[column];
+  }
+
+  // Diagonal going down to the right through the slot, one bit per column
+  public int getDiagonalTokens(int column, int row) {
+    return _diagonalTokens[column - row + _height - 1];
+  }
+
+  // Diagonal going up to the right through the slot, one bit per column
+  public int getAntiDiagonalTokens(int column, int row) {
+    return _antiDiagonalTokens[column + row];
+  }
+
+  private void toggleOccupancy(int column, int row) {
+    _rowTokens[row] ^= 1 << column;
+    _columnTokens[column] ^= 1 << row;
+    _diagonalTokens[column - row + _height - 1] ^= 1 << column;
+    _antiDiagonalTokens[column + row] ^= 1 << column;
+  }
+
+  private void resetOccupancy() {
+    Arrays.fill(_rowTokens, 0);
+    Arrays.fill(_columnTokens, 0);
+    Arrays.fill(_diagonalTokens, 0);
+    Arrays.fill(_antiDiagonalTokens, 0);
+  }
+
   public Position putToken(Token color, int column, int row) throws InvalidMove {
     return _strategy.putToken(this, color, column, row);
   }
 
+  public int makeMove(Token color, int column, int row) {
+    return _strategy.makeMove(this, color, column, row);
+  }
+
+  public int computeLanding(int column, int row) {
+    return _strategy.computeLanding(this, column, row);
+  }
+
+  public void undoToken() {
+    if (_undoSize == 0) {
+      throw new IllegalStateException("No move to undo");
+    }
+
+    int record = _undoRecords[--_undoSize];
+    _strategy.undoToken(this, record);
+
+    _yellowConnected = UndoRecord.isYellowConnected(record);
+    _redConnected = UndoRecord.isRedConnected(record);
+    _connectionsKnown = UndoRecord.areConnectionsKnown(record);
+  }
+
+  // Writes the legal moves of the position and returns how many there are.
+  // An array of width * height moves is always large enough
+  public int legalMoves(int[] moves) {
+    return _strategy.legalMoves(this, moves);
+  }
+
+  public void clearMarks() {
+    _mark++;
+
+    if (_mark == 0) {
+      Arrays.fill(_marks, 0);
+      _mark = 1;
+    }
+  }
+
+  // Marks the slot and tells whether it was not marked yet
+  public boolean mark(int column, int row) {
+    int slot = column * _height + row;
+
+    if (_marks[slot] == _mark) {
+      return false;
+    }
+    _marks[slot] = _mark;
+    return true;
+  }
+
+  public boolean canUndo() {
+    return _undoSize > 0;
+  }
+
+  public void pushUndoRecord(int record) {
+    // Called by the strategies before changing the board, so the connections
+    // saved along with the record are the ones previous to the move
+    if (_undoSize == _undoRecords.length) {
+      int[] undoRecords = new int[2 * _undoRecords.length];
+      System.arraycopy(_undoRecords, 0, undoRecords, 0, _undoSize);
+      _undoRecords = undoRecords;
+    }
+    _undoRecords[_undoSize++] = UndoRecord.withConnections(record,
+        _yellowConnected, _redConnected, _connectionsKnown);
+  }
+
   public boolean isColumnFull(int column) {
     return (isValidColumn(column)) && (_chipsInColumn[column] == _height);
   }
@@ -144,6 +379,90 @@ public class Board {
     return true;
   }
 
+  public int hashCode() {
+    return (int) (_hashKey ^ (_hashKey >>> 32));
+  }
+
+  public long hashKey() {
+    return _hashKey;
+  }
+
+  // Same key for every position that is a symmetric image of this one, so
+  // tables keyed by it share the entries of mirrored lines
+  public long canonicalKey() {
+    long key = _hashKey;
+
+    for (int i = 0; i < _symmetricKeys.length; i++) {
+      if (_symmetricKeys[i] < key) {
+        key = _symmetricKeys[i];
+      }
+    }
+    return key;
+  }
+
+  public int getSymmetries() {
+    return _symmetricKeys.length + 1;
+  }
+
+  // Symmetry whose key is the canonical one, 0 for the board as it is
+  public int getCanonicalSymmetry() {
+    long key = _hashKey;
+    int symmetry = 0;
+
+    for (int i = 0; i < _symmetricKeys.length; i++) {
+      if (_symmetricKeys[i] < key) {
+        key = _symmetricKeys[i];
+        symmetry = i + 1;
+      }
+    }
+    return symmetry;
+  }
+
+  // Slot of the move in the symmetric image of the board
+  public int getSymmetricMove(int symmetry, int move) {
+    int slot = getSymmetricSlot(symmetry, Move.getColumn(move), Move
+        .getRow(move));
+    return Move.encode(slot / _height, slot % _height);
+  }
+
+  // Symmetry that takes the image back to the board. Mirrors undo
+  // themselves, but after swapping columns and rows the mirror of the
+  // columns becomes the one of the rows
+  public static int getInverseSymmetry(int symmetry) {
+    if ((symmetry & 4) == 0) {
+      return symmetry;
+    }
+    return 4 | ((symmetry & 1) << 1) | ((symmetry & 2) >> 1);
+  }
+
+  // Bit 2 of the symmetry swaps columns and rows, then bit 0 mirrors the
+  // columns and bit 1 the rows
+  private int getSymmetricSlot(int symmetry, int column, int row) {
+    if ((symmetry & 4) != 0) {
+      int aux = column;
+      column = row;
+      row = aux;
+    }
+    if ((symmetry & 1) != 0) {
+      column = _width - 1 - column;
+    }
+    if ((symmetry & 2) != 0) {
+      row = _height - 1 - row;
+    }
+    return column * _height + row;
+  }
+
+  private void updateSymmetricKeys(int slot, Token previous, Token color) {
+    int slots = _width * _height;
+
+    for (int i = 0; i < _symmetricKeys.length; i++) {
+      int symmetricSlot = _symmetricSlots[i * slots + slot];
+
+      _symmetricKeys[i] ^= _zobrist.getKey(previous, symmetricSlot)
+          ^ _zobrist.getKey(color, symmetricSlot);
+    }
+  }
+
   public int getTokens() {
     return _tokens;
   }
@@ -160,6 +479,14 @@ public class Board {
     return _height;
   }
 
+  public int getConnectLength() {
+    return _connectLength;
+  }
+
+  public LineTable getLineTable() {
+    return _lines;
+  }
+
   public void setTokens(int chips) {
     _tokens = chips;
   }
@@ -168,6 +495,19 @@ public class Board {
     _chipsInColumn[column] = chips;
   }
 
+  // Board of the same kind with the same tokens, but none of the moves that
+  // led to them, so it cannot undo them
+  public Board copy() {
+    Board board = createEmptyBoard();
+
+    board.setGrid(_grid);
+    return board;
+  }
+
+  protected Board createEmptyBoard() {
+    return new Board(_width, _height, _connectLength, _strategy);
+  }
+
   public Token[][] getGrid() {
     return _grid;
   }
@@ -178,6 +518,35 @@ public class Board {
         _grid[i][j] = grid[i][j];
       }
     }
+
+    _hashKey = 0L;
+    Arrays.fill(_symmetricKeys, 0L);
+    for (int column = 0; column < _width; column++) {
+      for (int row = 0; row < _height; row++) {
+        _hashKey ^= _zobrist.getKey(_grid[column][row], column, row);
+        updateSymmetricKeys(column * _height + row, Token.NONE,
+            _grid[column][row]);
+      }
+    }
+    _undoSize = 0;
+    _connectionsKnown = false;
+
+    resetOccupancy();
+    if (_evaluated) {
+      countLines();
+    }
+    _tokens = 0;
+    for (int column = 0; column < _width; column++) {
+      _chipsInColumn[column] = 0;
+
+      for (int row = 0; row < _height; row++) {
+        if (_grid[column][row] != Token.NONE) {
+          toggleOccupancy(column, row);
+          _chipsInColumn[column]++;
+          _tokens++;
+        }
+      }
+    }
   }
 
   public boolean isBoardFull() {
@@ -185,57 +554,105 @@ public class Board {
   }
 
   public boolean fourTokensConnected(Token color) {
-    return fourTokensConnectedHorizontally(color)
-        || fourTokensConnectedVertically(color)
-        || fourTokensConnectedDiagonally(color);
-  }
-
-  public boolean fourTokensConnectedHorizontally(Token color) {
-    int row = _height - 1, column = 0;
+    if (!_connectionsKnown) {
+      _yellowConnected = scanFourTokensConnected(Token.YELLOW);
+      _redConnected = scanFourTokensConnected(Token.RED);
+      _connectionsKnown = true;
+    }
 
-    if (color != Token.NONE) {
+    if (color == Token.YELLOW) {
+      return _yellowConnected;
+    }
+    if (color == Token.RED) {
+      return _redConnected;
+    }
+    return false;
+  }
 
-      while (row >= 0) {
+  public boolean fourTokensConnected(Token color, int column, int row) {
+    if (color == Token.NONE || getSlot(column, row) != color) {
+      return false;
+    }
+    return tokensInLine(color, column, row, 1, 0) >= _connectLength
+        || tokensInLine(color, column, row, 0, 1) >= _connectLength
+        || tokensInLine(color, column, row, 1, 1) >= _connectLength
+        || tokensInLine(color, column, row, 1, -1) >= _connectLength;
+  }
 
-        while (column + 3 < _width) {
+  public boolean fourTokensConnectedInColumn(Token color, int column) {
+    for (int row = _height - 1; row >= 0; row--) {
+      if (fourTokensConnected(color, column, row)) {
+        return true;
+      }
+    }
+    return false;
+  }
 
-          if (_grid[column][row] == color && _grid[column + 1][row] == color
-              && _grid[column + 2][row] == color
-              && _grid[column + 3][row] == color)
-            return true;
+  public void updateConnections(int column, int row) {
+    // A token dropped on the board can only create lines through itself
+    if (_connectionsKnown) {
+      Token color = getSlot(column, row);
 
-          column++;
-        }
-        row--;
-        column = 0;
+      if (color == Token.YELLOW) {
+        _yellowConnected = _yellowConnected
+            || fourTokensConnected(color, column, row);
+      } else if (color == Token.RED) {
+        _redConnected = _redConnected || fourTokensConnected(color, column, row);
       }
     }
-    return false;
   }
 
-  public boolean fourTokensConnectedVertically(Token color) {
-    int column = 0, row = _height - 1;
+  public void updateConnectionsInColumn(int column) {
+    // Shifting a column can create or break lines of both colors through it.
+    // Lines elsewhere are untouched, so while nobody was connected the column
+    // tells the whole story; otherwise fall back to a full scan on demand.
+    if (_connectionsKnown && !_yellowConnected && !_redConnected) {
+      _yellowConnected = fourTokensConnectedInColumn(Token.YELLOW, column);
+      _redConnected = fourTokensConnectedInColumn(Token.RED, column);
+    } else {
+      _connectionsKnown = false;
+    }
+  }
 
-    if (color != Token.NONE) {
+  protected void resetConnections() {
+    _yellowConnected = false;
+    _redConnected = false;
+    _connectionsKnown = true;
+  }
 
-      while (column < _width) {
+  protected boolean scanFourTokensConnected(Token color) {
+    return fourTokensConnectedHorizontally(color)
+        || fourTokensConnectedVertically(color)
+        || fourTokensConnectedDiagonally(color);
+  }
 
-        while (row - 3 >= 0) {
+  private int tokensInLine(Token color, int column, int row, int columnStep,
+      int rowStep) {
+    int tokens = 1;
+    int c = column + columnStep, r = row + rowStep;
 
-          if (_grid[column][row] == color && _grid[column][row - 1] == color
-              && _grid[column][row - 2] == color
-              && _grid[column][row - 3] == color) {
-            return true;
-          }
-          row--;
-        }
+    while (getSlot(c, r) == color) {
+      tokens++;
+      c += columnStep;
+      r += rowStep;
+    }
 
-        row = _height - 1;
-        column++;
-      }
+    c = column - columnStep;
+    r = row - rowStep;
+    while (getSlot(c, r) == color) {
+      tokens++;
+      c -= columnStep;
+      r -= rowStep;
     }
+    return tokens;
+  }
 
-    return false;
+  public boolean fourTokensConnectedHorizontally(Token color) {
+    return connectedInDirection(color, LineTable.HORIZONTAL);
+  }
+
+  public boolean fourTokensConnectedVertically(Token color) {
+    return connectedInDirection(color, LineTable.VERTICAL);
   }
 
   public boolean fourTokensConnectedDiagonally(Token color) {
@@ -244,55 +661,40 @@ public class Board {
 
   public boolean connectedRightDiagonally(Token color) {
     // X
+    //  X
+    //   X
+    //    X
+    return connectedInDirection(color, LineTable.RIGHT_DIAGONAL);
+  }
+
+  public boolean connectedLeftDiagonally(Token color) {
+    //    X
+    //   X
+    //  X
     // X
-    // X
-    // X
-    int row = _height - 4, column = 0;
+    return connectedInDirection(color, LineTable.LEFT_DIAGONAL);
+  }
 
+  private boolean connectedInDirection(Token color, int direction) {
     if (color != Token.NONE) {
 
-      while (row >= 0) {
-
-        while (column + 3 < _width) {
+      for (int line = _lines.getFirstLine(direction); line <= _lines
+          .getLastLine(direction); line++) {
 
-          if ((_grid[column][row] == color
-              && _grid[column + 1][row + 1] == color
-              && _grid[column + 2][row + 2] == color && _grid[column + 3][row + 3] == color)) {
-            return true;
-          }
-          column++;
+        if (isLineComplete(color, _lines.getCells(line))) {
+          return true;
         }
-        row--;
-        column = 0;
       }
     }
     return false;
   }
 
-  public boolean connectedLeftDiagonally(Token color) {
-    // X
-    // X
-    // X
-    // X
-    int row = _height - 1, column = 0;
-
-    if (color != Token.NONE) {
-
-      while (row - 3 >= 0) {
-
-        while (column + 3 < _width) {
-
-          if ((_grid[column][row] == color
-              && _grid[column + 1][row - 1] == color
-              && _grid[column + 2][row - 2] == color && _grid[column + 3][row - 3] == color)) {
-            return true;
-          }
-          column++;
-        }
-        row--;
-        column = 0;
+  private boolean isLineComplete(Token color, int[] cells) {
+    for (int cell : cells) {
+      if (_grid[cell / _height][cell % _height] != color) {
+        return false;
       }
     }
-    return false;
+    return true;
   }
 }
@@ -0,0 +1,194 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class LineTable {
+
+  public static final int HORIZONTAL = 0;
+  public static final int VERTICAL = 1;
+  public static final int RIGHT_DIAGONAL = 2;
+  public static final int LEFT_DIAGONAL = 3;
+  public static final int DIRECTIONS = 4;
+
+  // Grid steps of every direction. Rows grow downwards, so the right diagonal
+  // goes down to the right and the left diagonal goes up to the right.
+  private static final int[] COLUMN_STEPS = { 1, 0, 1, 1 };
+  private static final int[] ROW_STEPS = { 0, 1, 1, -1 };
+
+  private static final Map<Long, LineTable> _tables = new HashMap<Long, LineTable>();
+
+  private int _width;
+  private int _height;
+  private int _connectLength;
+  private int _words;
+
+  private int[] _firstLine;
+  private int[][] _lineCells;
+  private long[] _masks;
+  private int[][] _cellLines;
+
+  public static LineTable getInstance(int width, int height, int connectLength) {
+    Long key = ((long) width << 32) | ((long) height << 16) | connectLength;
+
+    synchronized (_tables) {
+      LineTable table = _tables.get(key);
+
+      if (table == null) {
+        table = new LineTable(width, height, connectLength);
+        _tables.put(key, table);
+      }
+      return table;
+    }
+  }
+
+  private LineTable(int width, int height, int connectLength) {
+    _width = width;
+    _height = height;
+    _connectLength = connectLength;
+    _words = (width * (height + 1) + 63) / 64;
+
+    int lines = 0;
+    _firstLine = new int[DIRECTIONS + 1];
+    for (int direction = 0; direction < DIRECTIONS; direction++) {
+      _firstLine[direction] = lines;
+      lines += countLines(direction);
+    }
+    _firstLine[DIRECTIONS] = lines;
+
+    _lineCells = new int[lines][connectLength];
+    _masks = new long[lines * _words];
+
+    int[] linesPerCell = new int[width * height];
+    int line = 0;
+
+    for (int direction = 0; direction < DIRECTIONS; direction++) {
+      for (int column = 0; column < width; column++) {
+        for (int row = 0; row < height; row++) {
+
+          if (isLineInside(column, row, direction)) {
+
+            for (int i = 0; i < connectLength; i++) {
+              int c = column + i * COLUMN_STEPS[direction];
+              int r = row + i * ROW_STEPS[direction];
+              int bit = getBitIndex(c, r);
+
+              _lineCells[line][i] = getCellIndex(c, r);
+              _masks[line * _words + bit / 64] |= 1L << (bit % 64);
+              linesPerCell[getCellIndex(c, r)]++;
+            }
+            line++;
+          }
+        }
+      }
+    }
+
+    _cellLines = new int[width * height][];
+    for (int cell = 0; cell < _cellLines.length; cell++) {
+      _cellLines[cell] = new int[linesPerCell[cell]];
+      linesPerCell[cell] = 0;
+    }
+    for (line = 0; line < lines; line++) {
+      for (int cell : _lineCells[line]) {
+        _cellLines[cell][linesPerCell[cell]++] = line;
+      }
+    }
+  }
+
+  public int getWidth() {
+    return _width;
+  }
+
+  public int getHeight() {
+    return _height;
+  }
+
+  public int getConnectLength() {
+    return _connectLength;
+  }
+
+  public int getLines() {
+    return _lineCells.length;
+  }
+
+  public int getFirstLine(int direction) {
+    return _firstLine[direction];
+  }
+
+  public int getLastLine(int direction) {
+    return _firstLine[direction + 1] - 1;
+  }
+
+  public int[] getCells(int line) {
+    return _lineCells[line];
+  }
+
+  public int[] getLinesThrough(int column, int row) {
+    return _cellLines[getCellIndex(column, row)];
+  }
+
+  public int getWords() {
+    return _words;
+  }
+
+  public long getMask(int line, int word) {
+    return _masks[line * _words + word];
+  }
+
+  public int getCellIndex(int column, int row) {
+    return column * _height + row;
+  }
+
+  // Same layout as BitBoard: column-major, bottom row first and one sentinel
+  // bit on top of every column
+  public int getBitIndex(int column, int row) {
+    return column * (_height + 1) + (_height - 1 - row);
+  }
+
+  private int countLines(int direction) {
+    int lines = 0;
+
+    for (int column = 0; column < _width; column++) {
+      for (int row = 0; row < _height; row++) {
+        if (isLineInside(column, row, direction)) {
+          lines++;
+        }
+      }
+    }
+    return lines;
+  }
+
+  private boolean isLineInside(int column, int row, int direction) {
+    int lastColumn = column + (_connectLength - 1) * COLUMN_STEPS[direction];
+    int lastRow = row + (_connectLength - 1) * ROW_STEPS[direction];
+
+    return lastColumn >= 0 && lastColumn < _width && lastRow >= 0
+        && lastRow < _height;
+  }
+}
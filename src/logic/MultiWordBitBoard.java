@@ -0,0 +1,244 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic;
+
+import logic.strategy.TokenMoveStrategy;
+
+public class MultiWordBitBoard extends Board {
+
+  // Same layout as BitBoard, spread over several words. One empty word is
+  // kept on top of the last one, so shifting the whole board reads the next
+  // word without checking whether there is one
+  public static final int MAX_WORDS = 4;
+
+  protected long[] _yellowBits;
+  protected long[] _redBits;
+  protected int _stride;
+  protected int _words;
+
+  private long[] _line;
+  private long[] _shifted;
+
+  public MultiWordBitBoard(int width, int height, TokenMoveStrategy strategy) {
+    this(width, height, 4, strategy);
+  }
+
+  public MultiWordBitBoard(int width, int height, int connectLength,
+      TokenMoveStrategy strategy) {
+    super(width, height, connectLength, strategy);
+
+    if (!fits(width, height)) {
+      throw new IllegalArgumentException("Board " + width + "x" + height
+          + " does not fit in " + MAX_WORDS + " words");
+    }
+    _stride = height + 1;
+    _words = _lines.getWords();
+    _yellowBits = new long[_words + 1];
+    _redBits = new long[_words + 1];
+    _line = new long[_words + 1];
+    _shifted = new long[_words + 1];
+  }
+
+  public static boolean fits(int width, int height) {
+    return width * (height + 1) <= MAX_WORDS * 64;
+  }
+
+  public void resetBoard() {
+    super.resetBoard();
+    for (int word = 0; word < _words; word++) {
+      _yellowBits[word] = 0L;
+      _redBits[word] = 0L;
+    }
+  }
+
+  public Token getSlot(int column, int row) {
+    if (isValidColumn(column) && isValidRow(row)) {
+      int index = index(column, row);
+      long bit = 1L << index;
+
+      if ((_yellowBits[index >>> 6] & bit) != 0) {
+        return Token.YELLOW;
+      }
+      if ((_redBits[index >>> 6] & bit) != 0) {
+        return Token.RED;
+      }
+    }
+    return Token.NONE;
+  }
+
+  public void setCell(int column, int row, Token color) {
+    int index = index(column, row);
+    int word = index >>> 6;
+    long bit = 1L << index;
+
+    _yellowBits[word] &= ~bit;
+    _redBits[word] &= ~bit;
+    if (color == Token.YELLOW) {
+      _yellowBits[word] |= bit;
+    } else if (color == Token.RED) {
+      _redBits[word] |= bit;
+    }
+    super.setCell(column, row, color);
+  }
+
+  protected Board createEmptyBoard() {
+    return new MultiWordBitBoard(_width, _height, _connectLength, _strategy);
+  }
+
+  public void setGrid(Token[][] grid) {
+    super.setGrid(grid);
+
+    for (int word = 0; word < _words; word++) {
+      _yellowBits[word] = 0L;
+      _redBits[word] = 0L;
+    }
+    for (int column = 0; column < _width; column++) {
+      for (int row = 0; row < _height; row++) {
+        int index = index(column, row);
+
+        if (_grid[column][row] == Token.YELLOW) {
+          _yellowBits[index >>> 6] |= 1L << index;
+        } else if (_grid[column][row] == Token.RED) {
+          _redBits[index >>> 6] |= 1L << index;
+        }
+      }
+    }
+  }
+
+  public int getWords() {
+    return _words;
+  }
+
+  public long getBits(Token color, int word) {
+    if (color == Token.YELLOW) {
+      return _yellowBits[word];
+    }
+    if (color == Token.RED) {
+      return _redBits[word];
+    }
+    return 0L;
+  }
+
+  public boolean fourTokensConnected(Token color) {
+    long[] bits = bits(color);
+
+    if (bits == null) {
+      return false;
+    }
+    return connected(bits, 1) || connected(bits, _stride)
+        || connected(bits, _stride - 1) || connected(bits, _stride + 1);
+  }
+
+  public boolean fourTokensConnected(Token color, int column, int row) {
+    if (!isValidCell(column, row) || getSlot(column, row) != color
+        || color == Token.NONE) {
+      return false;
+    }
+
+    long[] bits = bits(color);
+
+    // Every line through the cell is a precomputed mask
+    for (int line : _lines.getLinesThrough(column, row)) {
+      boolean complete = true;
+
+      for (int word = 0; word < _words && complete; word++) {
+        long mask = _lines.getMask(line, word);
+        complete = (bits[word] & mask) == mask;
+      }
+      if (complete) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public void updateConnections(int column, int row) {
+    // The shift-and-mask check is cheaper than keeping the cache up to date
+  }
+
+  public void updateConnectionsInColumn(int column) {
+  }
+
+  public boolean fourTokensConnectedHorizontally(Token color) {
+    long[] bits = bits(color);
+    return bits != null && connected(bits, _stride);
+  }
+
+  public boolean fourTokensConnectedVertically(Token color) {
+    long[] bits = bits(color);
+    return bits != null && connected(bits, 1);
+  }
+
+  public boolean connectedRightDiagonally(Token color) {
+    // Rows grow downwards in the grid, so going right means going down here
+    long[] bits = bits(color);
+    return bits != null && connected(bits, _stride - 1);
+  }
+
+  public boolean connectedLeftDiagonally(Token color) {
+    long[] bits = bits(color);
+    return bits != null && connected(bits, _stride + 1);
+  }
+
+  protected int index(int column, int row) {
+    return column * _stride + (_height - 1 - row);
+  }
+
+  private long[] bits(Token color) {
+    if (color == Token.YELLOW) {
+      return _yellowBits;
+    }
+    if (color == Token.RED) {
+      return _redBits;
+    }
+    return null;
+  }
+
+  private boolean connected(long[] bits, int shift) {
+    long any = 0L;
+
+    for (int word = 0; word <= _words; word++) {
+      _line[word] = bits[word];
+      _shifted[word] = bits[word];
+    }
+
+    for (int i = 1; i < _connectLength; i++) {
+      // Shifts are shorter than a word, so every word takes the low bits of
+      // the next one. Working upwards lets it be done in place
+      for (int word = 0; word < _words; word++) {
+        _shifted[word] = (_shifted[word] >>> shift)
+            | (_shifted[word + 1] << (64 - shift));
+        _line[word] &= _shifted[word];
+      }
+    }
+
+    for (int word = 0; word < _words; word++) {
+      any |= _line[word];
+    }
+    return any != 0;
+  }
+}
@@ -28,9 +28,28 @@ package logic;
 
 public class Position {
 
+  // Shared read-only positions for every cell of the largest board
+  private static final int CACHED = 16;
+  private static final Position[][] _cache = new Position[CACHED][CACHED];
+
+  static {
+    for (int x = 0; x < CACHED; x++) {
+      for (int y = 0; y < CACHED; y++) {
+        _cache[x][y] = new FixedPosition(x, y);
+      }
+    }
+  }
+
   private int _X;
   private int _Y;
 
+  public static Position valueOf(int x, int y) {
+    if (x >= 0 && x < CACHED && y >= 0 && y < CACHED) {
+      return _cache[x][y];
+    }
+    return new Position(x, y);
+  }
+
   public Position() {
     _X = 0;
     _Y = 0;
@@ -82,4 +101,19 @@ public class Position {
 
     return ret;
   }
+
+  private static class FixedPosition extends Position {
+
+    FixedPosition(int x, int y) {
+      super(x, y);
+    }
+
+    public void setX(int x) {
+      throw new UnsupportedOperationException("Shared position");
+    }
+
+    public void setY(int y) {
+      throw new UnsupportedOperationException("Shared position");
+    }
+  }
 }
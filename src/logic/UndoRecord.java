@@ -0,0 +1,86 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic;
+
+public class UndoRecord {
+
+  // | known | red | yellow | popped token (2) | shift | move (16) |
+  private static final int SHIFT_FLAG = 1 << 16;
+  private static final int POPPED_SHIFT = 17;
+  private static final int YELLOW_CONNECTED = 1 << 19;
+  private static final int RED_CONNECTED = 1 << 20;
+  private static final int CONNECTIONS_KNOWN = 1 << 21;
+
+  private static final Token[] TOKENS = Token.values();
+
+  private UndoRecord() {
+  }
+
+  public static int placed(int column, int row) {
+    return Move.encode(column, row);
+  }
+
+  public static int shifted(int column, Token popped) {
+    return Move.encode(column, 0) | SHIFT_FLAG
+        | (popped.ordinal() << POPPED_SHIFT);
+  }
+
+  public static int getColumn(int record) {
+    return Move.getColumn(record);
+  }
+
+  public static int getRow(int record) {
+    return Move.getRow(record);
+  }
+
+  public static boolean isShift(int record) {
+    return (record & SHIFT_FLAG) != 0;
+  }
+
+  public static Token getPopped(int record) {
+    return TOKENS[(record >>> POPPED_SHIFT) & 0x3];
+  }
+
+  static int withConnections(int record, boolean yellowConnected,
+      boolean redConnected, boolean connectionsKnown) {
+    return record | (yellowConnected ? YELLOW_CONNECTED : 0)
+        | (redConnected ? RED_CONNECTED : 0)
+        | (connectionsKnown ? CONNECTIONS_KNOWN : 0);
+  }
+
+  static boolean isYellowConnected(int record) {
+    return (record & YELLOW_CONNECTED) != 0;
+  }
+
+  static boolean isRedConnected(int record) {
+    return (record & RED_CONNECTED) != 0;
+  }
+
+  static boolean areConnectionsKnown(int record) {
+    return (record & CONNECTIONS_KNOWN) != 0;
+  }
+}
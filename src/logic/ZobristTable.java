@@ -0,0 +1,89 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class ZobristTable {
+
+  private static final long SEED = 0x436f6e6e65637434L;
+
+  private static final Map<Long, ZobristTable> _tables = new HashMap<Long, ZobristTable>();
+
+  private int _height;
+  private long[] _yellowKeys;
+  private long[] _redKeys;
+
+  public static ZobristTable getInstance(int width, int height) {
+    Long key = ((long) width << 32) | height;
+
+    synchronized (_tables) {
+      ZobristTable table = _tables.get(key);
+
+      if (table == null) {
+        table = new ZobristTable(width, height);
+        _tables.put(key, table);
+      }
+      return table;
+    }
+  }
+
+  private ZobristTable(int width, int height) {
+    Random random = new Random(SEED);
+
+    _height = height;
+    _yellowKeys = new long[width * height];
+    _redKeys = new long[width * height];
+    for (int cell = 0; cell < width * height; cell++) {
+      _yellowKeys[cell] = random.nextLong();
+      _redKeys[cell] = random.nextLong();
+    }
+  }
+
+  public long getKey(Token color, int column, int row) {
+    if (color == Token.YELLOW) {
+      return _yellowKeys[column * _height + row];
+    }
+    if (color == Token.RED) {
+      return _redKeys[column * _height + row];
+    }
+    return 0L;
+  }
+
+  // Same keys, with the slot given as column * height + row
+  public long getKey(Token color, int slot) {
+    if (color == Token.YELLOW) {
+      return _yellowKeys[slot];
+    }
+    if (color == Token.RED) {
+      return _redKeys[slot];
+    }
+    return 0L;
+  }
+}
@@ -32,10 +32,11 @@ import logic.game.ConnectFourGame;
 import logic.game.Game;
 import logic.player.ConnectFourComputerPlayer;
 import logic.player.Player;
+import logic.search.SearchSettings;
 
 public class ConnectFourFactory implements LogicFactory {
 
-  public Game createGame(int columns, int rows) {
+  public Game createGame(int columns, int rows, int connectLength) {
     return new ConnectFourGame();
   }
 
@@ -43,7 +44,7 @@ public class ConnectFourFactory implements LogicFactory {
     return interfaceFactory.createHumanPlayer(false);
   }
 
-  public Player createComputerPlayer(Token color) {
-    return new ConnectFourComputerPlayer();
+  public Player createComputerPlayer(Token color, SearchSettings settings) {
+    return new ConnectFourComputerPlayer(color, 4, settings);
   }
 }
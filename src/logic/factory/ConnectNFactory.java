@@ -0,0 +1,59 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.factory;
+
+import gui.factory.InterfaceFactory;
+import logic.Token;
+import logic.game.ConnectNGame;
+import logic.game.Game;
+import logic.player.ConnectFourComputerPlayer;
+import logic.player.Player;
+import logic.search.SearchSettings;
+
+public class ConnectNFactory implements LogicFactory {
+
+  private int _connectLength;
+
+  // The computer players are created before the game, so they get the
+  // length of the lines from here
+  public ConnectNFactory(int connectLength) {
+    _connectLength = connectLength;
+  }
+
+  public Game createGame(int columns, int rows, int connectLength) {
+    return new ConnectNGame(columns, rows, connectLength);
+  }
+
+  public Player createHumanPlayer(InterfaceFactory interfaceFactory) {
+    return interfaceFactory.createHumanPlayer(false);
+  }
+
+  public Player createComputerPlayer(Token color, SearchSettings settings) {
+    return new ConnectFourComputerPlayer(color, _connectLength,
+        settings);
+  }
+}
@@ -32,19 +32,27 @@ import logic.game.Game;
 import logic.game.GravityGame;
 import logic.player.GravityComputerPlayer;
 import logic.player.Player;
+import logic.search.SearchSettings;
 
 public class GravityFactory implements LogicFactory {
 
-  public Game createGame(int columns, int rows) {
-    return new GravityGame(columns, rows);
+  private int _connectLength;
+
+  // The computer players are created before the game, so they get the
+  // length of the lines from here
+  public GravityFactory(int connectLength) {
+    _connectLength = connectLength;
+  }
+
+  public Game createGame(int columns, int rows, int connectLength) {
+    return new GravityGame(columns, rows, connectLength);
   }
 
   public Player createHumanPlayer(InterfaceFactory interfaceFactory) {
     return interfaceFactory.createHumanPlayer(true);
   }
 
-  public Player createComputerPlayer(Token color) {
-
-    return new GravityComputerPlayer();
+  public Player createComputerPlayer(Token color, SearchSettings settings) {
+    return new GravityComputerPlayer(color, _connectLength, settings);
   }
 }
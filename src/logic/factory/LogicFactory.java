@@ -30,12 +30,13 @@ import gui.factory.InterfaceFactory;
 import logic.Token;
 import logic.game.Game;
 import logic.player.Player;
+import logic.search.SearchSettings;
 
 public interface LogicFactory {
 
-  public Game createGame(int columns, int rows);
+  public Game createGame(int columns, int rows, int connectLength);
 
-  public Player createComputerPlayer(Token color);
+  public Player createComputerPlayer(Token color, SearchSettings settings);
 
   public Player createHumanPlayer(InterfaceFactory interfaceFactory);
 }
@@ -32,10 +32,11 @@ import logic.game.PopOutGame;
 import logic.game.Game;
 import logic.player.PopOutComputerPlayer;
 import logic.player.Player;
+import logic.search.SearchSettings;
 
 public class PopOutFactory implements LogicFactory {
 
-  public Game createGame(int columns, int rows) {
+  public Game createGame(int columns, int rows, int connectLength) {
     return new PopOutGame();
   }
 
@@ -43,7 +44,7 @@ public class PopOutFactory implements LogicFactory {
     return interfaceFactory.createHumanPlayer(false);
   }
 
-  public Player createComputerPlayer(Token color) {
-    return new PopOutComputerPlayer();
+  public Player createComputerPlayer(Token color, SearchSettings settings) {
+    return new PopOutComputerPlayer(color, settings);
   }
 }
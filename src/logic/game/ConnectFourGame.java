@@ -26,6 +26,7 @@
  */
 package logic.game;
 
+import logic.BitBoard;
 import logic.Board;
 import logic.strategy.ConnectFourTokenMove;
 
@@ -39,7 +40,7 @@ public class ConnectFourGame extends Game {
   }
 
   public Board createBoard() {
-    return new Board(WIDTH, HEIGHT, new ConnectFourTokenMove());
+    return new BitBoard(WIDTH, HEIGHT, new ConnectFourTokenMove());
   }
 
   public boolean isGameOver() {
@@ -0,0 +1,71 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.game;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.MultiWordBitBoard;
+import logic.strategy.ConnectFourTokenMove;
+
+public class ConnectNGame extends Game {
+
+  private int _columns;
+  private int _rows;
+  private int _connectLength;
+
+  public ConnectNGame(int columns, int rows, int connectLength) {
+    super();
+    _columns = columns;
+    _rows = rows;
+    _connectLength = connectLength;
+  }
+
+  public Board createBoard() {
+    if (BitBoard.fits(_columns, _rows)) {
+      return new BitBoard(_columns, _rows, _connectLength,
+          new ConnectFourTokenMove());
+    }
+    return new MultiWordBitBoard(_columns, _rows, _connectLength,
+        new ConnectFourTokenMove());
+  }
+
+  public boolean isGameOver() {
+    return (_board.isBoardFull() || _board.fourTokensConnected(_turn));
+  }
+
+  public int getColumns() {
+    return _columns;
+  }
+
+  public int getRows() {
+    return _rows;
+  }
+
+  public int getConnectLength() {
+    return _connectLength;
+  }
+}
@@ -28,9 +28,9 @@ package logic.game;
 
 import java.util.*;
 
-import exception.InvalidMove;
 import logic.AskPlayAgain;
 import logic.Board;
+import logic.Move;
 import logic.Position;
 import logic.Token;
 import logic.player.Player;
@@ -68,28 +68,31 @@ abstract public class Game {
   }
 
   protected boolean setToken(Position position) {
-    try {
+    if (position != null) {
+      return setToken(position.getX(), position.getY());
+    }
+    return false;
+  }
 
-      if (position != null) {
-        Position p = _board.putToken(_turn, position.getX(), position.getY());
-        notifyMove(p.getX(), p.getY());
+  protected boolean setToken(int column, int row) {
+    int move = _board.makeMove(_turn, column, row);
 
-        if (isGameOver()) {
+    if (move != Move.NONE) {
+      notifyMove(Move.getColumn(move), Move.getRow(move));
 
-          if (_board.fourTokensConnected(_turn)) {
-            _winner = _turn;
-          } else if (_board.fourTokensConnected(_turn.getOpposite())) {
-            _winner = _turn.getOpposite();
-          }
-          notifyGameOver(_winner);
+      if (isGameOver()) {
 
-        } else {
-          changeTurn();
+        if (_board.fourTokensConnected(_turn)) {
+          _winner = _turn;
+        } else if (_board.fourTokensConnected(_turn.getOpposite())) {
+          _winner = _turn.getOpposite();
         }
-        return true;
-      }
+        notifyGameOver(_winner);
 
-    } catch (InvalidMove ex) {
+      } else {
+        changeTurn();
+      }
+      return true;
     }
     return false;
   }
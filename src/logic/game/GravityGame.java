@@ -27,21 +27,29 @@
 package logic.game;
 
 import logic.Board;
+import logic.MultiWordBitBoard;
 import logic.strategy.GravityTokenMove;
 
 public class GravityGame extends Game {
 
   private int _columns;
   private int _rows;
+  private int _connectLength;
 
   public GravityGame(int columns, int rows) {
+    this(columns, rows, 4);
+  }
+
+  public GravityGame(int columns, int rows, int connectLength) {
     super();
     _columns = columns;
     _rows = rows;
+    _connectLength = connectLength;
   }
 
   public Board createBoard() {
-    return new Board(_columns, _rows, new GravityTokenMove());
+    return new MultiWordBitBoard(_columns, _rows, _connectLength,
+        new GravityTokenMove());
   }
 
   public boolean isGameOver() {
@@ -63,4 +71,12 @@ public class GravityGame extends Game {
   public void setRows(int rows) {
     _rows = rows;
   }
+
+  public int getConnectLength() {
+    return _connectLength;
+  }
+
+  public void setConnectLength(int connectLength) {
+    _connectLength = connectLength;
+  }
 }
@@ -26,6 +26,7 @@
  */
 package logic.game;
 
+import logic.BitBoard;
 import logic.Board;
 import logic.strategy.PopOutTokenMove;
 
@@ -39,7 +40,7 @@ public class PopOutGame extends Game {
   }
 
   public Board createBoard() {
-    return new Board(WIDTH, HEIGHT, new PopOutTokenMove());
+    return new BitBoard(WIDTH, HEIGHT, new PopOutTokenMove());
   }
 
   public boolean isGameOver() {
@@ -26,10 +26,346 @@
  */
 package logic.player;
 
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.MultiWordBitBoard;
 import logic.Position;
 import logic.Token;
+import logic.search.AlphaBetaSearch;
+import logic.search.LazySmpSearch;
+import logic.search.MonteCarloSearch;
+import logic.search.Playout;
+import logic.search.RandomPlayout;
+import logic.search.RootParallelSearch;
+import logic.search.SearchAlgorithm;
+import logic.search.SearchEngine;
+import logic.search.SearchSettings;
+import logic.search.TranspositionTable;
+import logic.search.TreeParallelSearch;
+import logic.search.YoungBrothersSearch;
+import logic.strategy.TokenMoveStrategy;
 
 public abstract class ComputerPlayer implements Player {
 
-  public abstract Position getMove(Token[][] tokens);
+  // Pondering lasts this many times the time of a move at most, in case
+  // the opponent never moves
+  private static final int PONDER_MOVES = 100;
+  // Part of the time of a move spent guessing the reply of the opponent
+  private static final int GUESS_SHARE = 10;
+  // Milliseconds between two requests to stop pondering
+  private static final int STOP_INTERVAL = 5;
+  // A playout plays a whole game, so it counts as this many nodes of a node
+  // budget
+  private static final int PLAYOUT_NODES = 10;
+
+  protected Token _color;
+  protected SearchSettings _settings;
+  protected SearchEngine _search;
+
+  private ExecutorService _ponderer;
+  private Future<?> _pondering;
+  private volatile boolean _ponderCancelled;
+  private volatile Token[][] _ponderGrid;
+  private volatile long _ponderStart;
+  private volatile int _ponderMove;
+  private int _searches;
+
+  protected ComputerPlayer(Token color, SearchSettings settings) {
+    _color = color;
+    _settings = settings;
+  }
+
+  // Searches deeper and deeper for as long as the settings allow
+  public Position getMove(Token[][] tokens) {
+    SearchEngine search = getSearch(tokens);
+    int move = stopPondering(tokens);
+
+    if (move == Move.NONE) {
+      search.getBoard().setGrid(tokens);
+      move = search.searchFor(_color, getSearchTime());
+      _searches++;
+    }
+
+    if (move == Move.NONE) {
+      return null;
+    }
+    if (_settings.isPondering()) {
+      startPondering(tokens, move);
+    }
+    return Position.valueOf(Move.getColumn(move), Move.getRow(move));
+  }
+
+  public boolean isPondering() {
+    return _pondering != null && !_pondering.isDone();
+  }
+
+  // Position after the guessed reply, once it is being searched
+  Token[][] getGuessedGrid() {
+    return _ponderGrid;
+  }
+
+  // Moves searched on the player's own time, rather than pondered
+  int getSearches() {
+    return _searches;
+  }
+
+  // Keeps searching in the background while the opponent thinks: the
+  // reply it is most likely to play is guessed with a short search, and
+  // the position after it is searched until the opponent moves. The
+  // transposition table keeps what was found either way
+  private void startPondering(Token[][] tokens, final int move) {
+    final Token[][] grid = copyGrid(tokens);
+
+    if (_ponderer == null) {
+      _ponderer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+          Thread thread = new Thread(runnable, "ponder");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+
+    _ponderCancelled = false;
+    _ponderGrid = null;
+    _ponderMove = Move.NONE;
+    _pondering = _ponderer.submit(new Runnable() {
+      public void run() {
+        ponder(grid, move);
+      }
+    });
+  }
+
+  private void ponder(Token[][] grid, int move) {
+    Board board = _search.getBoard();
+    Token opponent = _color.getOpposite();
+
+    board.setGrid(grid);
+    board.makeMove(_color, Move.getColumn(move), Move.getRow(move));
+    if (isOver(board) || _ponderCancelled) {
+      return;
+    }
+
+    int reply = _search.searchFor(opponent, Math.max(1,
+        _settings.getTimeBudget() / GUESS_SHARE));
+    if (reply == Move.NONE || _ponderCancelled) {
+      return;
+    }
+
+    board.makeMove(opponent, Move.getColumn(reply), Move.getRow(reply));
+    if (isOver(board)) {
+      return;
+    }
+
+    _ponderStart = System.currentTimeMillis();
+    _ponderGrid = copyGrid(board.getGrid());
+    _ponderMove = _search.searchFor(_color, (long) PONDER_MOVES
+        * _settings.getTimeBudget());
+  }
+
+  // If the opponent played the guessed reply, the pondering search goes on
+  // until it has had the time of a move, and its move is played. Otherwise
+  // it is stopped and Move.NONE is returned
+  private int stopPondering(Token[][] tokens) {
+    if (_pondering == null) {
+      return Move.NONE;
+    }
+
+    Token[][] guessed = _ponderGrid;
+    boolean hit = guessed != null && Arrays.deepEquals(guessed, tokens);
+
+    if (hit) {
+      waitFor(_pondering, _settings.getTimeBudget()
+          - (System.currentTimeMillis() - _ponderStart));
+    }
+
+    _ponderCancelled = true;
+    while (!_pondering.isDone()) {
+      _search.requestStop();
+      waitFor(_pondering, STOP_INTERVAL);
+    }
+    _pondering = null;
+    return hit ? _ponderMove : Move.NONE;
+  }
+
+  private void waitFor(Future<?> future, long milliseconds) {
+    if (milliseconds <= 0) {
+      return;
+    }
+    try {
+      future.get(milliseconds, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private static boolean isOver(Board board) {
+    return board.fourTokensConnected(Token.YELLOW) != board
+        .fourTokensConnected(Token.RED);
+  }
+
+  private static Token[][] copyGrid(Token[][] grid) {
+    Token[][] copy = new Token[grid.length][];
+
+    for (int column = 0; column < grid.length; column++) {
+      copy[column] = grid[column].clone();
+    }
+    return copy;
+  }
+
+  public Token getColor() {
+    return _color;
+  }
+
+  public SearchSettings getSettings() {
+    return _settings;
+  }
+
+  // Board of the variant for the private copy of the position
+  protected abstract Board createBoard(int width, int height);
+
+  // Algorithm used unless the settings choose one
+  protected SearchAlgorithm getDefaultAlgorithm() {
+    return SearchAlgorithm.LAZY_SMP;
+  }
+
+  // Random games of the variant for the Monte Carlo search
+  protected Playout createPlayout(Board board) {
+    return new RandomPlayout();
+  }
+
+  // With a node budget only the nodes stop the search
+  private long getSearchTime() {
+    return _settings.getNodeBudget() > 0 ? Long.MAX_VALUE : _settings
+        .getTimeBudget();
+  }
+
+  // More threads would make the moves depend on how they are scheduled
+  private int getThreads() {
+    return _settings.getNodeBudget() > 0 ? 1 : _settings.getThreads();
+  }
+
+  private int getPlayouts() {
+    if (_settings.getNodeBudget() > 0) {
+      return Math.max(1, _settings.getNodeBudget() / PLAYOUT_NODES);
+    }
+    return _settings.getPlayouts();
+  }
+
+  public SearchAlgorithm getAlgorithm() {
+    return _settings.getAlgorithm() == null ? getDefaultAlgorithm()
+        : _settings.getAlgorithm();
+  }
+
+  // The search keeps its own board, created on the first move
+  protected SearchEngine getSearch(Token[][] tokens) {
+    if (_search == null) {
+      // A single thread of Lazy SMP is a plain alpha-beta search, which
+      // takes a node budget
+      if (getAlgorithm() == SearchAlgorithm.YOUNG_BROTHERS
+          && _settings.getNodeBudget() == 0) {
+        _search = new YoungBrothersSearch(createBoard(tokens.length,
+            tokens[0].length), _settings.getThreads());
+      } else if (getAlgorithm() == SearchAlgorithm.MONTE_CARLO) {
+        _search = createMonteCarloSearch(tokens.length, tokens[0].length);
+      } else if (getAlgorithm() == SearchAlgorithm.SHARED_TREE) {
+        _search = createTreeParallelSearch(tokens.length, tokens[0].length);
+      } else {
+        _search = createLazySmpSearch(tokens.length, tokens[0].length);
+      }
+    }
+    return _search;
+  }
+
+  // Every thread keeps its own board, and all of them share one
+  // transposition table
+  private LazySmpSearch createLazySmpSearch(int width, int height) {
+    TranspositionTable table = new TranspositionTable(_settings
+        .getHashSize());
+    AlphaBetaSearch[] searches = new AlphaBetaSearch[getThreads()];
+
+    for (int i = 0; i < searches.length; i++) {
+      searches[i] = new AlphaBetaSearch(createBoard(width, height));
+      searches[i].setTranspositionTable(table);
+      searches[i].setNodeLimit(_settings.getNodeBudget());
+      // The table already gives the best move of most nodes, and killers
+      // then break more transpositions than they cut off
+      searches[i].setKillerMoves(false);
+      searches[i].setDriver(_settings.getDriver());
+    }
+
+    AlphaBetaSearch[] helpers = new AlphaBetaSearch[searches.length - 1];
+    System.arraycopy(searches, 1, helpers, 0, helpers.length);
+    return new LazySmpSearch(searches[0], helpers);
+  }
+
+  // A tree for every thread, in a share of the memory and of the playouts
+  private SearchEngine createMonteCarloSearch(int width, int height) {
+    int threads = getThreads();
+    MonteCarloSearch[] searches = new MonteCarloSearch[threads];
+
+    for (int i = 0; i < threads; i++) {
+      Board board = createBoard(width, height);
+
+      searches[i] = new MonteCarloSearch(board, createPlayout(board),
+          MonteCarloSearch.getNodes(_settings.getHashSize()) / threads);
+      searches[i].setIterationLimit((getPlayouts() + threads - 1) / threads);
+    }
+
+    if (_settings.getNodeBudget() > 0) {
+      searches[0].setSeed(_settings.getSeed());
+    }
+
+    if (threads == 1) {
+      return searches[0];
+    }
+
+    MonteCarloSearch[] helpers = new MonteCarloSearch[threads - 1];
+    System.arraycopy(searches, 1, helpers, 0, helpers.length);
+    return new RootParallelSearch(searches[0], helpers);
+  }
+
+  // One tree for all the threads, with a board and a playout each
+  private TreeParallelSearch createTreeParallelSearch(int width, int height) {
+    Board[] boards = new Board[getThreads()];
+    Playout[] playouts = new Playout[boards.length];
+
+    for (int i = 0; i < boards.length; i++) {
+      boards[i] = createBoard(width, height);
+      playouts[i] = createPlayout(boards[i]);
+    }
+
+    TreeParallelSearch search = new TreeParallelSearch(boards, playouts,
+        MonteCarloSearch.getNodes(_settings.getHashSize()));
+    search.setIterationLimit(getPlayouts());
+    if (_settings.getNodeBudget() > 0) {
+      search.setSeed(_settings.getSeed());
+    }
+    return search;
+  }
+
+  // The fastest board for the size
+  protected Board createBoard(int width, int height, int connectLength,
+      TokenMoveStrategy strategy) {
+    if (BitBoard.fits(width, height)) {
+      return new BitBoard(width, height, connectLength, strategy);
+    }
+    if (MultiWordBitBoard.fits(width, height)) {
+      return new MultiWordBitBoard(width, height, connectLength, strategy);
+    }
+    return new Board(width, height, connectLength, strategy);
+  }
 }
@@ -26,19 +26,92 @@
  */
 package logic.player;
 
-import java.util.Random;
+import java.io.File;
+import java.io.IOException;
 
+import logic.Board;
+import logic.Move;
 import logic.Position;
 import logic.Token;
+import logic.search.OpeningBook;
+import logic.search.OpeningBookGenerator;
+import logic.search.SearchSettings;
+import logic.search.Solver;
+import logic.strategy.ConnectFourTokenMove;
 
 public class ConnectFourComputerPlayer extends ComputerPlayer {
 
-  public Position getMove(Token[][] board) {
-    Random random = new Random();
-    try {
-      Thread.sleep(1000);
-    } catch (InterruptedException e) {
+  // About two seconds of solving, after which the position is searched
+  public static final long SOLVER_NODES = 10000000L;
+
+  private int _connectLength;
+  private OpeningBook _book;
+  private Solver _solver;
+  // The board of the search may be busy pondering
+  private Board _bookBoard;
+
+  public ConnectFourComputerPlayer(Token color) {
+    this(color, 4, new SearchSettings());
+  }
+
+  public ConnectFourComputerPlayer(Token color, int connectLength,
+      SearchSettings settings) {
+    super(color, settings);
+    _connectLength = connectLength;
+
+    if (settings.getBook() != null) {
+      try {
+        _book = OpeningBook.open(new File(settings.getBook()));
+      } catch (IOException e) {
+        System.err.println("    -> Playing without the opening book "
+            + settings.getBook() + ": " + e.getMessage());
+      }
+    }
+  }
+
+  // The book is looked up before searching, on the board it was made for.
+  // A perfect player solves the positions of that board, and searches the
+  // ones of any other, and the ones too far from the end to be solved in
+  // time
+  public Position getMove(Token[][] tokens) {
+    if ((_book == null && !_settings.isPerfect())
+        || tokens.length != OpeningBookGenerator.WIDTH
+        || tokens[0].length != OpeningBookGenerator.HEIGHT
+        || _connectLength != 4) {
+      return super.getMove(tokens);
+    }
+
+    if (_bookBoard == null) {
+      _bookBoard = createBoard(tokens.length, tokens[0].length);
     }
-    return new Position((int) (random.nextDouble() * board.length), 0);
+    _bookBoard.setGrid(tokens);
+
+    int move = _book == null ? Move.NONE : _book.probe(_bookBoard, _color);
+
+    if (move == Move.NONE && _settings.isPerfect()) {
+      if (_solver == null) {
+        _solver = new Solver();
+        _solver.setNodeLimit(SOLVER_NODES);
+      }
+      move = _solver.bestMove(_bookBoard, _color);
+      if (_solver.isAborted()) {
+        System.err.println("    -> Too far from the end to be solved, "
+            + "searching instead.");
+      }
+    }
+
+    if (move != Move.NONE) {
+      return Position.valueOf(Move.getColumn(move), Move.getRow(move));
+    }
+    return super.getMove(tokens);
+  }
+
+  public OpeningBook getBook() {
+    return _book;
+  }
+
+  protected Board createBoard(int width, int height) {
+    return createBoard(width, height, _connectLength,
+        new ConnectFourTokenMove());
   }
 }
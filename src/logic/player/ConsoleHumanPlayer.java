@@ -47,7 +47,7 @@ public class ConsoleHumanPlayer implements Player {
     if (_rowSensitive) {
       row = getRow(board[0].length);
     }
-    return new Position(column, row);
+    return Position.valueOf(column, row);
   }
 
   public int getColumn(int width) {
@@ -42,7 +42,7 @@ public class GUIHumanPlayer implements Player {
   }
 
   public synchronized void asynchronousMove(Position position) {
-    _lastMove = new Position(position.getX(), position.getY());
+    _lastMove = Position.valueOf(position.getX(), position.getY());
     notifyAll();
   }
 }
@@ -26,20 +26,40 @@
  */
 package logic.player;
 
-import java.util.Random;
-
-import logic.Position;
+import logic.Board;
+import logic.MultiWordBitBoard;
 import logic.Token;
+import logic.search.GravityPlayout;
+import logic.search.Playout;
+import logic.search.SearchAlgorithm;
+import logic.search.SearchSettings;
+import logic.strategy.GravityTokenMove;
 
 public class GravityComputerPlayer extends ComputerPlayer {
 
-  public Position getMove(Token[][] board) {
-    Random random = new Random();
-    try {
-      Thread.sleep(1000);
-    } catch (InterruptedException e) {
-    }
-    return new Position((int) (random.nextDouble() * board.length),
-        (int) (random.nextDouble() * board[0].length));
+  private int _connectLength;
+
+  public GravityComputerPlayer(Token color) {
+    this(color, 4, new SearchSettings());
+  }
+
+  public GravityComputerPlayer(Token color, int connectLength,
+      SearchSettings settings) {
+    super(color, settings);
+    _connectLength = connectLength;
+  }
+
+  protected Board createBoard(int width, int height) {
+    return new MultiWordBitBoard(width, height, _connectLength,
+        new GravityTokenMove());
+  }
+
+  // Large boards have too many moves for alpha-beta
+  protected SearchAlgorithm getDefaultAlgorithm() {
+    return SearchAlgorithm.SHARED_TREE;
+  }
+
+  protected Playout createPlayout(Board board) {
+    return new GravityPlayout();
   }
 }
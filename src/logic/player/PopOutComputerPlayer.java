@@ -26,19 +26,84 @@
  */
 package logic.player;
 
-import java.util.Random;
+import java.io.File;
+import java.io.IOException;
 
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
 import logic.Position;
 import logic.Token;
+import logic.search.Playout;
+import logic.search.PopOutPlayout;
+import logic.search.PopOutTable;
+import logic.search.RandomPlayout;
+import logic.search.SearchAlgorithm;
+import logic.search.SearchSettings;
+import logic.strategy.PopOutTokenMove;
 
 public class PopOutComputerPlayer extends ComputerPlayer {
 
-  public Position getMove(Token[][] board) {
-    Random random = new Random();
-    try {
-      Thread.sleep(1000);
-    } catch (InterruptedException e) {
+  private PopOutTable _table;
+  private boolean _tableOpened;
+  // The board of the search may be busy pondering
+  private Board _tableBoard;
+
+  public PopOutComputerPlayer(Token color) {
+    this(color, new SearchSettings());
+  }
+
+  public PopOutComputerPlayer(Token color, SearchSettings settings) {
+    super(color, settings);
+  }
+
+  // With a table of solved positions every move is looked up instead of
+  // searched, unless it has none for the position
+  public Position getMove(Token[][] tokens) {
+    PopOutTable table = getTable(tokens.length, tokens[0].length);
+
+    if (table != null) {
+      if (_tableBoard == null) {
+        _tableBoard = createBoard(tokens.length, tokens[0].length);
+      }
+      _tableBoard.setGrid(tokens);
+
+      int move = table.bestMove(_tableBoard, _color);
+      if (move != Move.NONE) {
+        return Position.valueOf(Move.getColumn(move), Move.getRow(move));
+      }
+    }
+    return super.getMove(tokens);
+  }
+
+  private PopOutTable getTable(int width, int height) {
+    if (!_tableOpened && _settings.getTable() != null) {
+      _tableOpened = true;
+      try {
+        _table = PopOutTable.open(new File(_settings.getTable()), width,
+            height);
+      } catch (IOException e) {
+        System.err.println("    -> Playing without the PopOut table "
+            + _settings.getTable() + ": " + e.getMessage());
+      }
+    }
+    return _table;
+  }
+
+  protected Board createBoard(int width, int height) {
+    return createBoard(width, height, 4, new PopOutTokenMove());
+  }
+
+  // Pushing the columns down gives too many moves for alpha-beta
+  protected SearchAlgorithm getDefaultAlgorithm() {
+    return SearchAlgorithm.MONTE_CARLO;
+  }
+
+  // The bitboard playouts need the whole board in one word
+  protected Playout createPlayout(Board board) {
+    if (board instanceof BitBoard) {
+      return new PopOutPlayout();
     }
-    return new Position((int) (random.nextDouble() * board.length), 0);
+    return new RandomPlayout();
   }
 }
@@ -0,0 +1,624 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.util.Arrays;
+
+import logic.Board;
+import logic.Move;
+import logic.Token;
+
+public class AlphaBetaSearch {
+
+  // Wins are scored above any evaluation, sooner wins being better
+  public static final int WIN_SCORE = 1 << 28;
+  public static final int INFINITY = WIN_SCORE + 1;
+
+  protected static final int UNKNOWN = Integer.MIN_VALUE;
+
+  // Wins are stored in the table relative to the node, not to the root
+  private static final int MAX_PLY = 256;
+
+  // Deepest iteration of a timed search
+  public static final int MAX_DEPTH = 64;
+
+  // Nodes searched between two looks at the clock
+  private static final int CLOCK_NODES = 1024;
+
+  // Keys the color to move, which PopOut cannot tell from the tokens
+  static final long RED_TO_MOVE = 0x9e3779b97f4a7c15L;
+
+  // Order of the moves tried first: the best one found before, then the
+  // two killers of the ply
+  private static final int HASH_MOVE_ORDER = Integer.MAX_VALUE;
+  private static final int KILLER_ORDER = Integer.MAX_VALUE - 1;
+
+  // Half width of the first aspiration window, which grows four times on
+  // every failure
+  private static final int ASPIRATION_WINDOW = 16;
+
+  // History counters are halved when one of them gets this high, and at
+  // every new search so that older cutoffs weigh less
+  private static final int MAX_HISTORY = 1 << 24;
+
+  protected Board _board;
+  protected int[][] _moves;
+  protected long _nodes;
+  protected TranspositionTable _table;
+
+  private SearchDriver _driver = SearchDriver.ALPHA_BETA;
+  private int _guess;
+
+  private boolean _killerMoves = true;
+  private boolean _historyMoves = true;
+  private int[] _killers;
+  private int[][] _history;
+  private int[] _priors;
+  private int[][] _orderScores;
+
+  private int _bestMove;
+  private int _score;
+  private int _depth;
+  private long _deadline;
+  private long _nodeLimit;
+  private boolean _aborted;
+  private volatile boolean _stopRequested;
+
+  // The search plays and takes back its moves on the given board, which is
+  // expected to be a private copy of the position
+  public AlphaBetaSearch(Board board) {
+    _board = board;
+    _moves = new int[0][];
+    _killers = new int[0];
+    _orderScores = new int[0][];
+  }
+
+  public Board getBoard() {
+    return _board;
+  }
+
+  public TranspositionTable getTranspositionTable() {
+    return _table;
+  }
+
+  public void setTranspositionTable(TranspositionTable table) {
+    _table = table;
+  }
+
+  public SearchDriver getDriver() {
+    return _driver;
+  }
+
+  public void setDriver(SearchDriver driver) {
+    _driver = driver;
+  }
+
+  // Nodes after which a search gives up as if the time was over, 0 for no
+  // limit. Unlike the time, it stops the search at the same node every time
+  public void setNodeLimit(long nodeLimit) {
+    _nodeLimit = nodeLimit;
+  }
+
+  // Moves that cut off a sibling node are tried early at the same ply
+  public void setKillerMoves(boolean killerMoves) {
+    _killerMoves = killerMoves;
+  }
+
+  // Moves are ordered by how often they cut off the tree before for the
+  // same color, starting from how close they are to the center
+  public void setHistoryMoves(boolean historyMoves) {
+    _historyMoves = historyMoves;
+  }
+
+  // Best move for the color at the given depth, or Move.NONE if there is
+  // none. The move is the slot to be given to makeMove
+  public int search(Token color, int depth) {
+    _deadline = Long.MAX_VALUE;
+    _nodes = 0;
+    _guess = 0;
+    ageOrdering();
+    searchDepth(color, depth);
+    return _bestMove;
+  }
+
+  // Searches one ply deeper every time until the time is over, and returns
+  // the best move of the last depth completed. The search stops earlier
+  // when it finds a forced win or loss
+  public int searchFor(Token color, long milliseconds) {
+    return searchFor(color, milliseconds, 1, MAX_DEPTH);
+  }
+
+  // Same, between the given depths. Long.MAX_VALUE milliseconds means no
+  // time limit
+  public int searchFor(Token color, long milliseconds, int firstDepth,
+      int lastDepth) {
+    int bestMove = Move.NONE;
+    int score = 0;
+    int depth = firstDepth - 1;
+
+    _deadline = milliseconds == Long.MAX_VALUE ? Long.MAX_VALUE : System
+        .nanoTime() + milliseconds * 1000000L;
+    _nodes = 0;
+    ageOrdering();
+    while (depth < lastDepth) {
+      _guess = score;
+      searchDepth(color, depth + 1);
+
+      if (_aborted) {
+        if (bestMove == Move.NONE) {
+          bestMove = _bestMove;
+          depth = 0;
+        }
+        break;
+      }
+      bestMove = _bestMove;
+      score = _score;
+      depth++;
+
+      if (isDecisive(score)) {
+        break;
+      }
+    }
+    _bestMove = bestMove;
+    _score = score;
+    _depth = depth;
+    return bestMove;
+  }
+
+  protected void searchDepth(Token color, int depth) {
+    ensurePlies(depth + 1);
+    _aborted = false;
+    _bestMove = Move.NONE;
+    _depth = depth;
+
+    if (_driver == SearchDriver.MTDF) {
+      _score = searchMtdf(color, depth);
+    } else if (_driver == SearchDriver.PRINCIPAL_VARIATION && depth > 1
+        && !isDecisive(_guess)) {
+      _score = searchAspiration(color, depth);
+    } else {
+      _score = negamax(color, depth, 0, -INFINITY, INFINITY);
+    }
+  }
+
+  // A narrow window around the score of the previous depth, widened on the
+  // side the score fell out of until it is inside
+  private int searchAspiration(Token color, int depth) {
+    int delta = ASPIRATION_WINDOW;
+    int alpha = _guess - delta;
+    int beta = _guess + delta;
+
+    while (true) {
+      int score = negamax(color, depth, 0, alpha, beta);
+
+      if (_aborted || (score > alpha && score < beta)) {
+        return score;
+      }
+      delta *= 4;
+      if (score <= alpha) {
+        alpha = Math.max(-INFINITY, score - delta);
+      } else {
+        beta = Math.min(INFINITY, score + delta);
+      }
+    }
+  }
+
+  // Zero-window searches around the guess narrow the bounds of the score
+  // until they meet, the transposition table keeping what every one found.
+  // The best move is the one of the last search that failed high
+  private int searchMtdf(Token color, int depth) {
+    int score = _guess;
+    int lower = -INFINITY;
+    int upper = INFINITY;
+    int bestMove = Move.NONE;
+
+    while (lower < upper) {
+      int beta = score == lower ? score + 1 : score;
+
+      score = negamax(color, depth, 0, beta - 1, beta);
+      if (_aborted) {
+        break;
+      }
+      if (score < beta) {
+        upper = score;
+      } else {
+        lower = score;
+        bestMove = _bestMove;
+      }
+    }
+
+    // Only upper bounds were found, so one more search just below the score
+    // tells which move reaches it
+    if (bestMove == Move.NONE && !_aborted) {
+      score = negamax(color, depth, 0, score - 1, score);
+      bestMove = _bestMove;
+    }
+    if (bestMove != Move.NONE) {
+      _bestMove = bestMove;
+    }
+    return score;
+  }
+
+  // Makes a running search, maybe in another thread, give up as if the
+  // time was over. It keeps doing so until the request is cleared
+  public void requestStop() {
+    _stopRequested = true;
+  }
+
+  public void clearStopRequest() {
+    _stopRequested = false;
+  }
+
+  protected boolean isStopRequested() {
+    return _stopRequested;
+  }
+
+  public boolean isAborted() {
+    return _aborted;
+  }
+
+  // Score of a node somewhere down the tree, with no time limit. The best
+  // move is only kept when the node is the root
+  public int searchNode(Token color, int depth, int ply, int alpha, int beta) {
+    ensurePlies(ply + depth + 1);
+    _deadline = Long.MAX_VALUE;
+    _aborted = false;
+    _bestMove = Move.NONE;
+    return negamax(color, depth, ply, alpha, beta);
+  }
+
+  public int getBestMove() {
+    return _bestMove;
+  }
+
+  // Depth of the last search completed
+  public int getDepth() {
+    return _depth;
+  }
+
+  public int getScore() {
+    return _score;
+  }
+
+  public long getNodes() {
+    return _nodes;
+  }
+
+  protected int negamax(Token color, int depth, int ply, int alpha, int beta) {
+    _nodes++;
+
+    if (_nodes == _nodeLimit) {
+      _aborted = true;
+    }
+
+    if (_nodes % CLOCK_NODES == 0
+        && (isStopRequested() || System.nanoTime() > _deadline)) {
+      _aborted = true;
+    }
+
+    if (depth == 0) {
+      return evaluate(color);
+    }
+
+    long key = getKey(color);
+    int hashMove = Move.NONE;
+
+    if (_table != null) {
+      long data = _table.probe(key);
+
+      if (data != 0L) {
+        hashMove = TranspositionTable.getMove(data);
+
+        if (ply > 0 && TranspositionTable.getDepth(data) >= depth) {
+          int score = fromTable(TranspositionTable.getScore(data), ply);
+          int bound = TranspositionTable.getBound(data);
+
+          if (bound == TranspositionTable.EXACT
+              || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+              || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+            return score;
+          }
+        }
+      }
+    }
+
+    int[] moves = _moves[ply];
+    int count = _board.legalMoves(moves);
+
+    if (count == 0) {
+      return 0;
+    }
+    orderMoves(moves, count, hashMove, color, ply);
+
+    int originalAlpha = alpha;
+    int best = -INFINITY;
+    int bestMove = Move.NONE;
+    int bestLanding = Move.NONE;
+
+    for (int i = 0; i < count && alpha < beta; i++) {
+      int landing = _board.makeMove(color, Move.getColumn(moves[i]),
+          Move.getRow(moves[i]));
+
+      int score = getOutcome(color, ply + 1);
+
+      if (score == UNKNOWN) {
+        score = searchChild(color, depth, ply, alpha, beta, i == 0);
+      }
+      _board.undoToken();
+
+      // An aborted search cannot be trusted, only the first move at the
+      // root is kept in case no depth was completed
+      if (_aborted) {
+        if (ply == 0 && _bestMove == Move.NONE) {
+          _bestMove = moves[i];
+        }
+        return best;
+      }
+
+      if (score > best) {
+        best = score;
+        bestMove = moves[i];
+        bestLanding = landing;
+
+        if (ply == 0) {
+          _bestMove = moves[i];
+        }
+        if (score > alpha) {
+          alpha = score;
+        }
+      }
+    }
+
+    if (best >= beta) {
+      recordCutoff(bestMove, bestLanding, hashMove, color, depth, ply);
+    }
+
+    if (_table != null) {
+      int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+          : best >= beta ? TranspositionTable.LOWER_BOUND
+              : TranspositionTable.EXACT;
+
+      _table.store(key, Math.min(depth, 255), bound, bestMove, toTable(best,
+          ply));
+    }
+    return best;
+  }
+
+  // A principal variation search tries every move after the first one with
+  // a zero window, and only searches it again if it turns out better
+  private int searchChild(Token color, int depth, int ply, int alpha,
+      int beta, boolean first) {
+    Token opponent = color.getOpposite();
+
+    if (first || _driver != SearchDriver.PRINCIPAL_VARIATION
+        || beta - alpha == 1) {
+      return -negamax(opponent, depth - 1, ply + 1, -beta, -alpha);
+    }
+
+    int score = -negamax(opponent, depth - 1, ply + 1, -alpha - 1, -alpha);
+
+    if (score > alpha && score < beta && !_aborted) {
+      score = -negamax(opponent, depth - 1, ply + 1, -beta, -alpha);
+    }
+    return score;
+  }
+
+  protected long getKey(Token color) {
+    return color == Token.RED ? _board.hashKey() ^ RED_TO_MOVE : _board
+        .hashKey();
+  }
+
+  private int toTable(int score, int ply) {
+    if (score > WIN_SCORE - MAX_PLY) {
+      return score + ply;
+    }
+    if (score < -(WIN_SCORE - MAX_PLY)) {
+      return score - ply;
+    }
+    return score;
+  }
+
+  private int fromTable(int score, int ply) {
+    if (score > WIN_SCORE - MAX_PLY) {
+      return score - ply;
+    }
+    if (score < -(WIN_SCORE - MAX_PLY)) {
+      return score + ply;
+    }
+    return score;
+  }
+
+  // Score of the position for the color that has just moved if that move
+  // ended the game. A PopOut push may connect both colors, and then the
+  // game goes on
+  protected int getOutcome(Token color, int ply) {
+    return getOutcome(_board, color, ply);
+  }
+
+  protected static int getOutcome(Board board, Token color, int ply) {
+    boolean connected = board.fourTokensConnected(color);
+    boolean opponentConnected = board.fourTokensConnected(color
+        .getOpposite());
+
+    if (connected && !opponentConnected) {
+      return WIN_SCORE - ply;
+    }
+    if (opponentConnected && !connected) {
+      return -(WIN_SCORE - ply);
+    }
+    return UNKNOWN;
+  }
+
+  // Whether the score is a forced win or loss
+  public static boolean isDecisive(int score) {
+    return Math.abs(score) > WIN_SCORE - MAX_PLY;
+  }
+
+  // The board keeps its evaluation up to date move after move, so a leaf
+  // does not scan the lines
+  public int evaluate(Token color) {
+    return _board.getEvaluation(color);
+  }
+
+  // Hash move, killers and then history, sorted in place on the scores of
+  // the ply so that nothing is allocated. Without killers nor history the
+  // moves closer to the center of the board come first, as they take part
+  // in more lines and cut off more of the tree. Killers and history are
+  // kept by landing slot, as many clicks may land on the same slot
+  protected void orderMoves(int[] moves, int count, int hashMove,
+      Token color, int ply) {
+    int[] scores = _orderScores[ply];
+    int[] history = _history[color == Token.RED ? 1 : 0];
+    int height = _board.getHeight();
+
+    for (int i = 0; i < count; i++) {
+      int move = moves[i];
+      int landing = _killerMoves || _historyMoves ? _board.computeLanding(
+          Move.getColumn(move), Move.getRow(move)) : move;
+      int score;
+
+      if (move == hashMove) {
+        score = HASH_MOVE_ORDER;
+      } else if (_killerMoves && landing == _killers[2 * ply]) {
+        score = KILLER_ORDER;
+      } else if (_killerMoves && landing == _killers[2 * ply + 1]) {
+        score = KILLER_ORDER - 1;
+      } else if (_historyMoves) {
+        int cell = Move.getColumn(landing) * height + Move.getRow(landing);
+        score = history[cell] + _priors[cell];
+      } else {
+        score = -getCenterDistance(move);
+      }
+
+      int j = i - 1;
+
+      while (j >= 0 && scores[j] < score) {
+        moves[j + 1] = moves[j];
+        scores[j + 1] = scores[j];
+        j--;
+      }
+      moves[j + 1] = move;
+      scores[j + 1] = score;
+    }
+  }
+
+  // The hash move is tried first anyway, so it is not kept as a killer
+  private void recordCutoff(int move, int landing, int hashMove, Token color,
+      int depth, int ply) {
+    if (_killerMoves && move != hashMove && landing != _killers[2 * ply]) {
+      _killers[2 * ply + 1] = _killers[2 * ply];
+      _killers[2 * ply] = landing;
+    }
+
+    if (_historyMoves) {
+      int[] history = _history[color == Token.RED ? 1 : 0];
+      int cell = Move.getColumn(landing) * _board.getHeight()
+          + Move.getRow(landing);
+
+      history[cell] += depth * depth;
+      if (history[cell] > MAX_HISTORY) {
+        halveHistory();
+      }
+    }
+  }
+
+  // Killers belong to the positions of the last search, whereas the
+  // history still tells which cells are worth playing
+  private void ageOrdering() {
+    Arrays.fill(_killers, Move.NONE);
+    if (_history != null) {
+      halveHistory();
+    }
+  }
+
+  // Forgets every cutoff, as if the search was a new one
+  protected void clearOrdering() {
+    Arrays.fill(_killers, Move.NONE);
+    if (_history != null) {
+      for (int[] history : _history) {
+        Arrays.fill(history, 0);
+      }
+    }
+  }
+
+  private void halveHistory() {
+    for (int[] history : _history) {
+      for (int cell = 0; cell < history.length; cell++) {
+        history[cell] >>= 1;
+      }
+    }
+  }
+
+  protected int getCenterDistance(int move) {
+    return Math.abs(2 * Move.getColumn(move) - (_board.getWidth() - 1))
+        + Math.abs(2 * Move.getRow(move) - (_board.getHeight() - 1));
+  }
+
+  protected void ensurePlies(int plies) {
+    if (_moves.length < plies) {
+      int[][] moves = new int[plies][];
+
+      for (int ply = 0; ply < plies; ply++) {
+        moves[ply] = ply < _moves.length ? _moves[ply]
+            : new int[_board.getWidth() * _board.getHeight()];
+      }
+      _moves = moves;
+
+      int[] killers = new int[2 * plies];
+      Arrays.fill(killers, Move.NONE);
+      System.arraycopy(_killers, 0, killers, 0, _killers.length);
+      _killers = killers;
+
+      int[][] scores = new int[plies][];
+      for (int ply = 0; ply < plies; ply++) {
+        scores[ply] = ply < _orderScores.length ? _orderScores[ply]
+            : new int[_board.getWidth() * _board.getHeight()];
+      }
+      _orderScores = scores;
+    }
+
+    if (_history == null) {
+      createHistory();
+    }
+  }
+
+  // Until cutoffs tell them apart, the cells closer to the center come
+  // first, as they take part in more lines
+  private void createHistory() {
+    int width = _board.getWidth();
+    int height = _board.getHeight();
+
+    _history = new int[2][width * height];
+    _priors = new int[width * height];
+    for (int column = 0; column < width; column++) {
+      for (int row = 0; row < height; row++) {
+        _priors[column * height + row] = -getCenterDistance(Move.encode(
+            column, row));
+      }
+    }
+  }
+}
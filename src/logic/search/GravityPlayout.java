@@ -0,0 +1,94 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import logic.Board;
+import logic.Move;
+import logic.Token;
+
+// Gravity games played by clicking random empty slots, which is far cheaper
+// than listing the landing slots of every click on a large board. Tokens
+// never move once landed, so only the line through the last one can end
+// the game
+public class GravityPlayout implements Playout {
+
+  // Clicks on taken slots before looking for the empty ones in order
+  private static final int TRIES = 8;
+
+  public Token play(Board board, Token color, XorShiftRandom random) {
+    int width = board.getWidth();
+    int height = board.getHeight();
+    int empty = width * height - board.getTokens();
+    Token winner = Token.NONE;
+    int played = 0;
+
+    while (empty > 0) {
+      int column = random.nextInt(width);
+      int row = random.nextInt(height);
+
+      for (int i = 0; i < TRIES && board.getSlot(column, row) != Token.NONE;
+          i++) {
+        column = random.nextInt(width);
+        row = random.nextInt(height);
+      }
+
+      if (board.getSlot(column, row) != Token.NONE) {
+        int slot = findEmpty(board, random.nextInt(empty));
+        column = Move.getColumn(slot);
+        row = Move.getRow(slot);
+      }
+
+      int move = board.makeMove(color, column, row);
+      played++;
+      empty--;
+
+      if (board.fourTokensConnected(color, Move.getColumn(move), Move
+          .getRow(move))) {
+        winner = color;
+        break;
+      }
+      color = color.getOpposite();
+    }
+
+    while (played > 0) {
+      board.undoToken();
+      played--;
+    }
+    return winner;
+  }
+
+  private int findEmpty(Board board, int index) {
+    for (int column = 0; column < board.getWidth(); column++) {
+      for (int row = 0; row < board.getHeight(); row++) {
+        if (board.getSlot(column, row) == Token.NONE && index-- == 0) {
+          return Move.encode(column, row);
+        }
+      }
+    }
+    return Move.NONE;
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import logic.Board;
+import logic.Move;
+import logic.Token;
+
+// Helper threads search the same position as the main one, every other
+// helper one ply deeper, sharing the transposition table. They do not
+// coordinate at all: what one of them finds is picked up by the others
+// through the table, which is what makes the main search faster
+public class LazySmpSearch implements SearchEngine {
+
+  private AlphaBetaSearch _main;
+  private AlphaBetaSearch[] _helpers;
+  private ExecutorService _executor;
+  private Future<?>[] _running;
+
+  private int _bestMove;
+  private int _score;
+  private int _depth;
+  private long _nodes;
+
+  // Every search needs a board of its own, and all of them should share the
+  // transposition table of the main one
+  public LazySmpSearch(AlphaBetaSearch main, AlphaBetaSearch[] helpers) {
+    _main = main;
+    _helpers = helpers;
+    _running = new Future<?>[helpers.length];
+
+    if (helpers.length > 0) {
+      _executor = Executors.newFixedThreadPool(helpers.length,
+          new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, "search helper");
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+    }
+  }
+
+  public AlphaBetaSearch getMainSearch() {
+    return _main;
+  }
+
+  public Board getBoard() {
+    return _main.getBoard();
+  }
+
+  public int getThreads() {
+    return _helpers.length + 1;
+  }
+
+  public int searchFor(Token color, long milliseconds) {
+    return searchFor(color, milliseconds, AlphaBetaSearch.MAX_DEPTH);
+  }
+
+  // Searches the position of the main board. The result is the one of the
+  // deepest depth completed by any of the threads
+  public int searchFor(final Token color, final long milliseconds,
+      final int lastDepth) {
+    Token[][] grid = _main.getBoard().getGrid();
+
+    if (_main.getTranspositionTable() != null) {
+      _main.getTranspositionTable().newSearch();
+    }
+    for (int i = 0; i < _helpers.length; i++) {
+      final AlphaBetaSearch helper = _helpers[i];
+      final int firstDepth = 1 + (i % 2);
+
+      helper.getBoard().setGrid(grid);
+      helper.clearStopRequest();
+      _running[i] = _executor.submit(new Runnable() {
+        public void run() {
+          helper.searchFor(color, milliseconds, firstDepth, lastDepth);
+        }
+      });
+    }
+
+    _main.clearStopRequest();
+    _main.searchFor(color, milliseconds, 1, lastDepth);
+    _bestMove = _main.getBestMove();
+    _score = _main.getScore();
+    _depth = _main.getDepth();
+    _nodes = _main.getNodes();
+
+    for (int i = 0; i < _helpers.length; i++) {
+      _helpers[i].requestStop();
+    }
+    for (int i = 0; i < _helpers.length; i++) {
+      waitFor(_running[i]);
+
+      AlphaBetaSearch helper = _helpers[i];
+
+      if (helper.getDepth() > _depth && helper.getBestMove() != Move.NONE) {
+        _bestMove = helper.getBestMove();
+        _score = helper.getScore();
+        _depth = helper.getDepth();
+      }
+      _nodes += helper.getNodes();
+    }
+    return _bestMove;
+  }
+
+  public void requestStop() {
+    _main.requestStop();
+    for (int i = 0; i < _helpers.length; i++) {
+      _helpers[i].requestStop();
+    }
+  }
+
+  public int getScore() {
+    return _score;
+  }
+
+  public int getDepth() {
+    return _depth;
+  }
+
+  // Nodes searched by all the threads
+  public long getNodes() {
+    return _nodes;
+  }
+
+  public void shutdown() {
+    if (_executor != null) {
+      _executor.shutdownNow();
+    }
+  }
+
+  private void waitFor(Future<?> future) {
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
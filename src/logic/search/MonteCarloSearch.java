@@ -0,0 +1,324 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import logic.Board;
+import logic.Move;
+import logic.Token;
+
+// Monte Carlo tree search with UCT selection. The tree lives in arrays
+// allocated once, and every iteration walks it on the board with makeMove
+// and undoToken before a random playout from the leaf
+public class MonteCarloSearch implements SearchEngine {
+
+  public static final double EXPLORATION = Math.sqrt(2);
+  // Bytes taken by every node of the tree
+  public static final int NODE_SIZE = 21;
+  // Iterations between two looks at the clock
+  private static final int CLOCK_ITERATIONS = 64;
+
+  private static final int UNEXPANDED = -1;
+  private static final byte ONGOING = 0;
+  private static final byte WIN = 1;
+  private static final byte LOSS = 2;
+  private static final byte DRAW = 3;
+
+  private Board _board;
+  private Playout _playout;
+  private XorShiftRandom _random;
+  private int _iterationLimit;
+  private volatile boolean _stopRequested;
+
+  // The tree, where the children of a node are consecutive. The wins of a
+  // node are those of the color that made its move, a draw counting half
+  private int[] _moves;
+  private int[] _firstChild;
+  private int[] _childCount;
+  private int[] _visits;
+  private float[] _wins;
+  // Outcome for the color that made the move, once known
+  private byte[] _outcomes;
+  private int _size;
+
+  private int[] _path;
+  private int[] _legalMoves;
+  private long _iterations;
+  private int _depth;
+  private int _score;
+
+  public MonteCarloSearch(Board board, Playout playout, int nodes) {
+    _board = board;
+    _playout = playout;
+    _random = new XorShiftRandom();
+    _moves = new int[nodes];
+    _firstChild = new int[nodes];
+    _childCount = new int[nodes];
+    _visits = new int[nodes];
+    _wins = new float[nodes];
+    _outcomes = new byte[nodes];
+    _legalMoves = new int[board.getWidth() * board.getHeight()];
+    _path = new int[RandomPlayout.MAX_MOVES];
+  }
+
+  // Nodes that fit in the megabytes
+  public static int getNodes(int megabytes) {
+    return (int) Math.min(Integer.MAX_VALUE / 2, (long) megabytes * 1024
+        * 1024 / NODE_SIZE);
+  }
+
+  public Board getBoard() {
+    return _board;
+  }
+
+  public void setSeed(long seed) {
+    _random.setSeed(seed);
+  }
+
+  // Most iterations of every search, 0 for no limit but the time
+  public int getIterationLimit() {
+    return _iterationLimit;
+  }
+
+  public void setIterationLimit(int iterationLimit) {
+    _iterationLimit = iterationLimit;
+  }
+
+  public void requestStop() {
+    _stopRequested = true;
+  }
+
+  public int searchFor(Token color, long milliseconds) {
+    long deadline = milliseconds == Long.MAX_VALUE ? Long.MAX_VALUE : System
+        .currentTimeMillis() + milliseconds;
+
+    _stopRequested = false;
+    _iterations = 0;
+    _depth = 0;
+    _size = 1;
+    resetNode(0, Move.NONE);
+
+    while (_iterationLimit == 0 || _iterations < _iterationLimit) {
+      if (_iterations % CLOCK_ITERATIONS == 0 && _iterations > 0
+          && (_stopRequested || System.currentTimeMillis() >= deadline)) {
+        break;
+      }
+      iterate(color);
+      _iterations++;
+    }
+    return getBestMove();
+  }
+
+  // The most visited move at the root, the most reliable one
+  public int getBestMove() {
+    int best = UNEXPANDED;
+
+    for (int i = 0; i < _childCount[0]; i++) {
+      int child = _firstChild[0] + i;
+
+      if (best == UNEXPANDED || _visits[child] > _visits[best]) {
+        best = child;
+      }
+    }
+
+    if (best == UNEXPANDED) {
+      _score = 0;
+      return Move.NONE;
+    }
+    _score = _visits[best] == 0 ? 0
+        : (int) (1000 * _wins[best] / _visits[best]);
+    return _moves[best];
+  }
+
+  // Per mille of the games won with the best move
+  public int getScore() {
+    return _score;
+  }
+
+  // Deepest ply reached within the tree
+  public int getDepth() {
+    return _depth;
+  }
+
+  // Iterations of the last search
+  public long getNodes() {
+    return _iterations;
+  }
+
+  public int getTreeSize() {
+    return _size;
+  }
+
+  // Moves of the root, which the root parallel search adds up
+  public int getRootMoves() {
+    return _childCount[0];
+  }
+
+  public int getRootMove(int index) {
+    return _moves[_firstChild[0] + index];
+  }
+
+  public int getRootVisits(int index) {
+    return _visits[_firstChild[0] + index];
+  }
+
+  public float getRootWins(int index) {
+    return _wins[_firstChild[0] + index];
+  }
+
+  public void shutdown() {
+  }
+
+  private void iterate(Token rootColor) {
+    Token color = rootColor;
+    int node = 0;
+    int ply = 0;
+
+    _path[0] = 0;
+
+    while (_outcomes[node] == ONGOING && ply + 1 < _path.length) {
+      if (_firstChild[node] == UNEXPANDED && !expand(node)) {
+        break;
+      }
+      if (_childCount[node] == 0) {
+        _outcomes[node] = DRAW;
+        break;
+      }
+
+      int child = select(node);
+      _board.makeMove(color, Move.getColumn(_moves[child]), Move
+          .getRow(_moves[child]));
+      _path[++ply] = child;
+      color = color.getOpposite();
+      node = child;
+
+      if (_visits[child] == 0) {
+        _outcomes[child] = getOutcome(color.getOpposite());
+        break;
+      }
+    }
+
+    if (ply > _depth) {
+      _depth = ply;
+    }
+
+    // Winner of the game, seen by the color that made the move of the leaf
+    byte outcome = _outcomes[node];
+
+    if (outcome == ONGOING) {
+      Token winner = _playout.play(_board, color, _random);
+
+      if (winner == Token.NONE) {
+        outcome = DRAW;
+      } else {
+        outcome = winner == color ? LOSS : WIN;
+      }
+    }
+
+    for (int i = ply; i >= 0; i--) {
+      _visits[_path[i]]++;
+
+      if (outcome == WIN) {
+        _wins[_path[i]] += 1;
+      } else if (outcome == DRAW) {
+        _wins[_path[i]] += 0.5f;
+      }
+
+      if (outcome != DRAW) {
+        outcome = outcome == WIN ? LOSS : WIN;
+      }
+      if (i > 0) {
+        _board.undoToken();
+      }
+    }
+  }
+
+  // The legal moves become children of the node, as long as they fit
+  private boolean expand(int node) {
+    int count = _board.legalMoves(_legalMoves);
+
+    if (_size + count > _moves.length) {
+      return false;
+    }
+
+    _firstChild[node] = _size;
+    _childCount[node] = count;
+    for (int i = 0; i < count; i++) {
+      resetNode(_size++, _legalMoves[i]);
+    }
+    return true;
+  }
+
+  // UCT: the best mean result plus a bonus for the less visited moves,
+  // which are all tried once first
+  private int select(int node) {
+    int first = _firstChild[node];
+    int count = _childCount[node];
+    double logVisits = Math.log(_visits[node]);
+    double bestValue = Double.NEGATIVE_INFINITY;
+    int best = first;
+
+    for (int child = first; child < first + count; child++) {
+      if (_visits[child] == 0) {
+        return child;
+      }
+
+      double value = _wins[child] / _visits[child] + EXPLORATION
+          * Math.sqrt(logVisits / _visits[child]);
+
+      if (value > bestValue) {
+        bestValue = value;
+        best = child;
+      }
+    }
+    return best;
+  }
+
+  // Outcome once the color has moved, by the same rules as the games: a
+  // line of both colors lets the game go on
+  private byte getOutcome(Token color) {
+    boolean connected = _board.fourTokensConnected(color);
+    boolean opponentConnected = _board.fourTokensConnected(color
+        .getOpposite());
+
+    if (connected && !opponentConnected) {
+      return WIN;
+    }
+    if (opponentConnected && !connected) {
+      return LOSS;
+    }
+    return ONGOING;
+  }
+
+  private void resetNode(int node, int move) {
+    _moves[node] = move;
+    _firstChild[node] = UNEXPANDED;
+    _childCount[node] = 0;
+    _visits[node] = 0;
+    _wins[node] = 0;
+    _outcomes[node] = ONGOING;
+  }
+}
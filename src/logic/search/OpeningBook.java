@@ -0,0 +1,181 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+import logic.Board;
+import logic.Move;
+import logic.Token;
+
+// Best moves of the first positions of the game, searched beforehand. The
+// file is an array of records sorted by key: the canonical key of the
+// position and the color to move, then the best move in the canonical image
+// of the board and its score. The file is mapped in memory, so it takes no
+// heap and all the players of the host share its pages
+public class OpeningBook {
+
+  public static final int RECORD_SIZE = 16;
+  // Score of the positions that are not in the book
+  public static final int NO_SCORE = Integer.MIN_VALUE;
+
+  private static final int MOVE_OFFSET = 8;
+  private static final int SCORE_OFFSET = 12;
+
+  private static final Map<String, OpeningBook> _books = new HashMap<String, OpeningBook>();
+
+  private MappedByteBuffer _records;
+  private int _size;
+
+  // Books are shared by all the players that open the same file
+  public static OpeningBook open(File file) throws IOException {
+    String path = file.getCanonicalPath();
+
+    synchronized (_books) {
+      OpeningBook book = _books.get(path);
+
+      if (book == null) {
+        book = new OpeningBook(file);
+        _books.put(path, book);
+      }
+      return book;
+    }
+  }
+
+  private OpeningBook(File file) throws IOException {
+    RandomAccessFile input = new RandomAccessFile(file, "r");
+
+    try {
+      FileChannel channel = input.getChannel();
+      long length = channel.size();
+
+      if (length % RECORD_SIZE != 0
+          || length / RECORD_SIZE > Integer.MAX_VALUE) {
+        throw new IOException("Not an opening book: " + file);
+      }
+
+      // The mapping outlives the channel
+      _records = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+      _size = (int) (length / RECORD_SIZE);
+    } finally {
+      input.close();
+    }
+  }
+
+  // Key of the position with the color to move, the same for all its
+  // symmetric images
+  public static long getKey(Board board, Token color) {
+    return color == Token.RED ? board.canonicalKey()
+        ^ AlphaBetaSearch.RED_TO_MOVE : board.canonicalKey();
+  }
+
+  public int size() {
+    return _size;
+  }
+
+  // Best move of the position on the board as it is, or Move.NONE if the
+  // position is not in the book
+  public int probe(Board board, Token color) {
+    int record = find(getKey(board, color));
+
+    if (record < 0) {
+      return Move.NONE;
+    }
+
+    int move = _records.getInt(record * RECORD_SIZE + MOVE_OFFSET);
+    return board.getSymmetricMove(Board.getInverseSymmetry(board
+        .getCanonicalSymmetry()), move);
+  }
+
+  public int getScore(Board board, Token color) {
+    return getScore(getKey(board, color));
+  }
+
+  // Score of the record with the key, for books with keys of their own
+  public int getScore(long key) {
+    int record = find(key);
+
+    if (record < 0) {
+      return NO_SCORE;
+    }
+    return _records.getInt(record * RECORD_SIZE + SCORE_OFFSET);
+  }
+
+  // Binary search with absolute reads, which many threads can do at once
+  private int find(long key) {
+    int low = 0;
+    int high = _size - 1;
+
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long middleKey = _records.getLong(middle * RECORD_SIZE);
+
+      if (middleKey < key) {
+        low = middle + 1;
+      } else if (middleKey > key) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  // Writes the records in the order of their keys. Every entry holds the
+  // move and the score
+  public static void write(File file, SortedMap<Long, int[]> entries)
+      throws IOException {
+    RandomAccessFile output = new RandomAccessFile(file, "rw");
+
+    try {
+      FileChannel channel = output.getChannel();
+      ByteBuffer buffer = ByteBuffer.allocate(entries.size() * RECORD_SIZE);
+
+      for (Map.Entry<Long, int[]> entry : entries.entrySet()) {
+        buffer.putLong(entry.getKey());
+        buffer.putInt(entry.getValue()[0]);
+        buffer.putInt(entry.getValue()[1]);
+      }
+      buffer.flip();
+
+      output.setLength(0);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } finally {
+      output.close();
+    }
+  }
+}
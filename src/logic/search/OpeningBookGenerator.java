@@ -0,0 +1,118 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.Token;
+import logic.strategy.ConnectFourTokenMove;
+
+// Builds the Connect Four opening book by searching every position of the
+// first plies to a fixed depth. Symmetric positions are searched only once
+public class OpeningBookGenerator {
+
+  public static final int WIDTH = 7;
+  public static final int HEIGHT = 6;
+  public static final int DEFAULT_PLIES = 4;
+  public static final int DEFAULT_DEPTH = 12;
+
+  private Board _board;
+  private AlphaBetaSearch _search;
+  private SortedMap<Long, int[]> _entries;
+  private int _depth;
+
+  public OpeningBookGenerator(int depth, int hashSize) {
+    _board = new BitBoard(WIDTH, HEIGHT, new ConnectFourTokenMove());
+    _search = new AlphaBetaSearch(_board);
+    _search.setTranspositionTable(new TranspositionTable(hashSize));
+    _entries = new TreeMap<Long, int[]>();
+    _depth = depth;
+  }
+
+  // Searches the positions up to the plies from the empty board, yellow
+  // moving first, and returns them by key
+  public SortedMap<Long, int[]> generate(int plies) {
+    _entries.clear();
+    add(Token.YELLOW, plies);
+    return _entries;
+  }
+
+  private void add(Token color, int plies) {
+    long key = OpeningBook.getKey(_board, color);
+
+    if (_entries.containsKey(key)) {
+      return;
+    }
+
+    int move = _search.searchFor(color, Long.MAX_VALUE, 1, _depth);
+    if (move == Move.NONE) {
+      return;
+    }
+
+    // Moves are kept in the canonical image of the board
+    _entries.put(key, new int[] {
+        _board.getSymmetricMove(_board.getCanonicalSymmetry(), move),
+        _search.getScore() });
+
+    if (plies == 0 || AlphaBetaSearch.isDecisive(_search.getScore())) {
+      return;
+    }
+
+    int[] moves = new int[WIDTH * HEIGHT];
+    int count = _board.legalMoves(moves);
+
+    for (int i = 0; i < count; i++) {
+      _board.makeMove(color, Move.getColumn(moves[i]), Move.getRow(moves[i]));
+      add(color.getOpposite(), plies - 1);
+      _board.undoToken();
+    }
+  }
+
+  // Arguments: book file, plies and depth of the searches
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Use: OpeningBookGenerator <file> [plies] [depth]");
+      System.exit(1);
+    }
+
+    int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+    int depth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+    long start = System.currentTimeMillis();
+    SortedMap<Long, int[]> entries = new OpeningBookGenerator(depth,
+        SearchSettings.DEFAULT_HASH_SIZE * 4).generate(plies);
+
+    OpeningBook.write(new File(args[0]), entries);
+    System.out.println(entries.size() + " positions in "
+        + (System.currentTimeMillis() - start) + " ms");
+  }
+}
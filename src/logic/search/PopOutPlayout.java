@@ -0,0 +1,104 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Token;
+
+// PopOut games played straight on two copies of the bitboards, with no
+// undo and no allocation. Same rules as PopOutTokenMove and PopOutGame: a
+// token dropped in a full column pushes it down, taking the bottom token
+// out, and the game ends when one and only one color has four in a row
+public class PopOutPlayout implements Playout {
+
+  public Token play(Board board, Token color, XorShiftRandom random) {
+    BitBoard bitBoard = (BitBoard) board;
+    int width = board.getWidth();
+    int height = board.getHeight();
+    int stride = height + 1;
+    long column = (1L << height) - 1;
+    long own = bitBoard.getBits(color);
+    long opponent = bitBoard.getBits(color.getOpposite());
+    long full = 0L;
+
+    for (int c = 0; c < width; c++) {
+      if (board.isColumnFull(c)) {
+        full |= 1L << c;
+      }
+    }
+
+    for (int played = 0; played < RandomPlayout.MAX_MOVES; played++) {
+      int c = random.nextInt(width);
+      int base = c * stride;
+      long mask = column << base;
+
+      if ((full & (1L << c)) != 0) {
+
+        // Everything in the column goes one slot down, the bottom token out
+        own = (own & ~mask) | (((own & mask) >>> 1) & mask);
+        opponent = (opponent & ~mask) | (((opponent & mask) >>> 1) & mask);
+        own |= 1L << (base + height - 1);
+
+      } else {
+
+        long top = (own | opponent) & mask;
+        long slot = top == 0 ? 1L << base : Long.highestOneBit(top) << 1;
+
+        own |= slot;
+        if ((slot & (1L << (base + height - 1))) != 0) {
+          full |= 1L << c;
+        }
+      }
+
+      boolean connected = isConnected(own, stride);
+      boolean opponentConnected = isConnected(opponent, stride);
+
+      if (connected != opponentConnected) {
+        return connected ? color : color.getOpposite();
+      }
+
+      long aux = own;
+      own = opponent;
+      opponent = aux;
+      color = color.getOpposite();
+    }
+    return Token.NONE;
+  }
+
+  // Four in a row of the bits, laid out as in BitBoard
+  static boolean isConnected(long bits, int stride) {
+    return fourInLine(bits, 1) != 0 || fourInLine(bits, stride) != 0
+        || fourInLine(bits, stride - 1) != 0
+        || fourInLine(bits, stride + 1) != 0;
+  }
+
+  private static long fourInLine(long bits, int shift) {
+    long pairs = bits & (bits >>> shift);
+    return pairs & (pairs >>> (2 * shift));
+  }
+}
@@ -0,0 +1,560 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import logic.Board;
+import logic.Move;
+import logic.Token;
+
+// Value of every PopOut position reachable from the empty board, solved
+// backwards from the ends of the game. Positions are seen by the color to
+// move, so a position and the one with the colors swapped share their
+// entry. Every column is numbered by its tokens, 2^k - 1 plus the pattern
+// of the k tokens of the color to move, and the index of the position is
+// the number of its columns in base 2^(height + 1) - 1.
+//
+// A bit for every index tells the reachable positions, and their entries
+// follow the order of their indices. The number of entries before every
+// block of 512 bits is kept as well, so the entry of an index is found
+// counting the bits of at most one block, in constant time. The file holds
+// the width and the height, the bits, the counts and then the entries.
+//
+// Every entry is one byte: 0 for a draw, WIN + n for a win in n plies and
+// LOSS + n for a loss in n plies. Games may go on forever in PopOut, so
+// the positions that never get a value are the draws. Positions that are
+// not in the table read as draws too
+public class PopOutTable {
+
+  public static final int DRAW = 0;
+  public static final int WIN = 1;
+  public static final int LOSS = 128;
+  // Longest distance an entry can hold
+  public static final int MAX_DISTANCE = 126;
+
+  // Reached but not solved yet, never left in the table
+  private static final int UNKNOWN = 255;
+
+  private static final int HEADER_SIZE = 8;
+  // Words of bits counted together
+  private static final int BLOCK_BITS = 3;
+
+  private static final int SEGMENT_BITS = 30;
+  private static final int SEGMENT_MASK = (1 << SEGMENT_BITS) - 1;
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private int _width;
+  private int _height;
+  private int _stride;
+  private long _base;
+  private long _words;
+  private long _blocks;
+  // Offsets of the counts and the entries in the file
+  private long _counts;
+  private long _entries;
+  private long _size;
+  private MappedByteBuffer[] _segments;
+
+  private PopOutTable(int width, int height) {
+    _width = width;
+    _height = height;
+    _stride = height + 1;
+    _base = (1L << (height + 1)) - 1;
+    if (width * _stride > 64) {
+      throw new IllegalArgumentException("The board does not fit in a word");
+    }
+
+    long indices = 1L;
+    for (int c = 0; c < width; c++) {
+      indices *= _base;
+    }
+    _words = (indices + 63) >>> 6;
+    _blocks = (_words + (1 << BLOCK_BITS) - 1) >>> BLOCK_BITS;
+    _counts = HEADER_SIZE + 8 * _words;
+    // The last count is the number of entries
+    _entries = _counts + 8 * (_blocks + 1);
+  }
+
+  // Table solved beforehand with generate
+  public static PopOutTable open(File file, int width, int height)
+      throws IOException {
+    PopOutTable table = new PopOutTable(width, height);
+    RandomAccessFile data = new RandomAccessFile(file, "r");
+
+    try {
+      if (data.length() < table._entries || data.readInt() != width
+          || data.readInt() != height) {
+        throw new IOException("Not a " + width + "x" + height
+            + " PopOut table: " + file);
+      }
+      data.seek(table._entries - 8);
+      table._size = data.readLong();
+      if (data.length() != table._entries + table._size) {
+        throw new IOException("Not a " + width + "x" + height
+            + " PopOut table: " + file);
+      }
+      table._segments = map(data.getChannel(), data.length(), false);
+    } finally {
+      data.close();
+    }
+    return table;
+  }
+
+  // Finds the positions reachable from the empty board and solves them
+  // into the file. Each round gives their values to the positions that end
+  // in that many plies: wins with a move to a loss of the round before,
+  // and losses whose moves all lead to wins, the longest of them of the
+  // round before. The positions left when a round finds none are draws.
+  // The positions reached at every ply are kept in files beside the table
+  public static PopOutTable generate(File file, int width, int height)
+      throws IOException {
+    PopOutTable table = new PopOutTable(width, height);
+    RandomAccessFile data = new RandomAccessFile(file, "rw");
+
+    try {
+      data.setLength(0);
+      data.writeInt(width);
+      data.writeInt(height);
+      data.setLength(table._entries);
+      table._segments = map(data.getChannel(), table._entries, true);
+      table.findReachable(file.getAbsoluteFile().getParentFile());
+      table.count();
+
+      data.setLength(table._entries + table._size);
+      table._segments = map(data.getChannel(), table._entries
+          + table._size, true);
+    } finally {
+      data.close();
+    }
+    table.solve();
+    return table;
+  }
+
+  public int getWidth() {
+    return _width;
+  }
+
+  public int getHeight() {
+    return _height;
+  }
+
+  // Positions in the table
+  public long size() {
+    return _size;
+  }
+
+  // Index of the position, by the tokens of the color to move and of the
+  // other one, laid out as in BitBoard
+  public long getIndex(long own, long opponent) {
+    long index = 0L;
+
+    for (int c = _width - 1; c >= 0; c--) {
+      long column = ((own | opponent) >>> (c * _stride)) & _base;
+      int tokens = 64 - Long.numberOfLeadingZeros(column);
+      long pattern = (own >>> (c * _stride)) & ((1L << tokens) - 1);
+
+      index = index * _base + (1L << tokens) - 1 + pattern;
+    }
+    return index;
+  }
+
+  public int getValue(long index) {
+    long entry = getEntry(index);
+    return entry < 0 ? DRAW : getByte(_entries + entry);
+  }
+
+  public int getValue(Board board, Token color) {
+    return getValue(getIndex(getBits(board, color), getBits(board, color
+        .getOpposite())));
+  }
+
+  public static boolean isWin(int value) {
+    return value >= WIN && value < LOSS;
+  }
+
+  public static boolean isLoss(int value) {
+    return value >= LOSS && value < UNKNOWN;
+  }
+
+  // Plies to the end of the game, for wins and losses
+  public static int getDistance(int value) {
+    return isLoss(value) ? value - LOSS : value - WIN;
+  }
+
+  // The quickest win, else a draw, else the slowest loss. As the slot to be
+  // given to makeMove
+  public int bestMove(Board board, Token color) {
+    long own = getBits(board, color);
+    long opponent = getBits(board, color.getOpposite());
+    int bestMove = Move.NONE;
+    int bestRank = Integer.MIN_VALUE;
+
+    for (int c = 0; c < _width; c++) {
+      long ownChild = play(own, opponent, c, true);
+      long opponentChild = play(opponent, own, c, false);
+
+      // The child is seen by the opponent
+      int value = getValue(getIndex(opponentChild, ownChild));
+      int rank;
+
+      if (isLoss(value)) {
+        rank = 2 * MAX_DISTANCE - getDistance(value);
+      } else if (isWin(value)) {
+        rank = -2 * MAX_DISTANCE + getDistance(value);
+      } else {
+        rank = 0;
+      }
+
+      if (rank > bestRank) {
+        bestRank = rank;
+        bestMove = Move.encode(c, 0);
+      }
+    }
+    return bestMove;
+  }
+
+  // Entry of the index, or -1 if it is not in the table
+  private long getEntry(long index) {
+    long word = index >>> 6;
+    long bits = getWord(word);
+
+    if ((bits & 1L << index) == 0) {
+      return -1;
+    }
+
+    long block = word >>> BLOCK_BITS;
+    long entry = getLong(_counts + 8 * block);
+
+    for (long w = block << BLOCK_BITS; w < word; w++) {
+      entry += Long.bitCount(getWord(w));
+    }
+    return entry + Long.bitCount(bits & (1L << index) - 1);
+  }
+
+  // Sets the bits of the positions reachable from the empty board, one ply
+  // at a time. The ends of the game are reached but not played on
+  private void findReachable(File directory) throws IOException {
+    File ply = File.createTempFile("popout", ".ply", directory);
+    File nextPly = File.createTempFile("popout", ".ply", directory);
+
+    try {
+      DataOutputStream output = openOutput(ply);
+
+      output.writeLong(0L);
+      output.close();
+      setBit(0L);
+
+      for (boolean found = true; found;) {
+        DataInputStream input = openInput(ply);
+        output = openOutput(nextPly);
+        found = false;
+
+        try {
+          while (true) {
+            long index;
+            try {
+              index = input.readLong();
+            } catch (EOFException e) {
+              break;
+            }
+
+            long own = getOwn(index);
+            long opponent = getAll(index) & ~own;
+
+            for (int c = 0; c < _width; c++) {
+              long ownChild = play(own, opponent, c, true);
+              long opponentChild = play(opponent, own, c, false);
+              long child = getIndex(opponentChild, ownChild);
+
+              if ((getWord(child >>> 6) & 1L << child) != 0) {
+                continue;
+              }
+              setBit(child);
+
+              // The child is seen by the opponent
+              if (getOutcome(opponentChild, ownChild) == UNKNOWN) {
+                output.writeLong(child);
+                found = true;
+              }
+            }
+          }
+        } finally {
+          input.close();
+          output.close();
+        }
+
+        File swap = ply;
+        ply = nextPly;
+        nextPly = swap;
+      }
+    } finally {
+      ply.delete();
+      nextPly.delete();
+    }
+  }
+
+  // Entries before every block, and in all
+  private void count() {
+    long entries = 0;
+
+    for (long block = 0; block < _blocks; block++) {
+      putLong(_counts + 8 * block, entries);
+      for (long w = block << BLOCK_BITS; w < Math.min(_words,
+          (block + 1) << BLOCK_BITS); w++) {
+        entries += Long.bitCount(getWord(w));
+      }
+    }
+    putLong(_counts + 8 * _blocks, entries);
+    _size = entries;
+  }
+
+  // The ends of the game are given their values and the others are
+  // UNKNOWN. Then every round tries the ones still unknown, in the order
+  // of their indices so that the children looked up are close to each
+  // other
+  private void solve() {
+    for (int distance = 0;; distance++) {
+      boolean found = false;
+      long entry = 0;
+
+      for (long word = 0; word < _words; word++) {
+        for (long bits = getWord(word); bits != 0; bits &= bits - 1) {
+          long index = word << 6 | Long.numberOfTrailingZeros(bits);
+
+          if (distance == 0) {
+            long own = getOwn(index);
+            putByte(_entries + entry, getOutcome(own, getAll(index) & ~own));
+          } else if (getByte(_entries + entry) == UNKNOWN) {
+            int value = solve(index, distance);
+
+            if (value != DRAW) {
+              if (distance > MAX_DISTANCE) {
+                throw new IllegalStateException(
+                    "Distance beyond the table: " + distance);
+              }
+              putByte(_entries + entry, value);
+              found = true;
+            }
+          }
+          entry++;
+        }
+      }
+
+      if (!found && distance > 0) {
+        break;
+      }
+    }
+
+    // The ones never solved are draws
+    for (long entry = 0; entry < _size; entry++) {
+      if (getByte(_entries + entry) == UNKNOWN) {
+        putByte(_entries + entry, DRAW);
+      }
+    }
+  }
+
+  // Value of the position if it ends in exactly this many plies, else DRAW
+  private int solve(long index, int distance) {
+    long all = getAll(index);
+    long own = getOwn(index);
+    long opponent = all & ~own;
+    int longestWin = -1;
+
+    for (int c = 0; c < _width; c++) {
+      long ownChild = play(own, opponent, c, true);
+      long opponentChild = play(opponent, own, c, false);
+      int value = getValue(getIndex(opponentChild, ownChild));
+
+      if (isLoss(value) && getDistance(value) == distance - 1) {
+        return WIN + distance;
+      }
+      if (!isWin(value) || getDistance(value) >= distance) {
+        // A draw or a loss still to be found, or a win of this round
+        longestWin = Integer.MAX_VALUE;
+      } else {
+        longestWin = Math.max(longestWin, getDistance(value));
+      }
+    }
+    return longestWin == distance - 1 ? LOSS + distance : DRAW;
+  }
+
+  // WIN or LOSS for the color to move if the game is over, else UNKNOWN.
+  // When both colors are connected the game goes on
+  private int getOutcome(long own, long opponent) {
+    boolean connected = PopOutPlayout.isConnected(own, _stride);
+    boolean opponentConnected = PopOutPlayout.isConnected(opponent, _stride);
+
+    if (connected && !opponentConnected) {
+      return WIN;
+    }
+    if (opponentConnected && !connected) {
+      return LOSS;
+    }
+    return UNKNOWN;
+  }
+
+  // Tokens of one color once a token is dropped in the column, by that
+  // color if dropping. A full column is pushed down
+  private long play(long bits, long otherBits, int column, boolean dropping) {
+    int base = column * _stride;
+    long mask = ((1L << _height) - 1) << base;
+    long all = (bits | otherBits) & mask;
+
+    if (all == mask) {
+      bits = (bits & ~mask) | (((bits & mask) >>> 1) & mask);
+      return dropping ? bits | (1L << (base + _height - 1)) : bits;
+    }
+
+    long slot = all == 0 ? 1L << base : Long.highestOneBit(all) << 1;
+    return dropping ? bits | slot : bits;
+  }
+
+  // Tokens of the position, from its index
+  private long getAll(long index) {
+    long all = 0L;
+
+    for (int c = 0; c < _width; c++) {
+      long code = index % _base;
+      int tokens = 63 - Long.numberOfLeadingZeros(code + 1);
+
+      all |= ((1L << tokens) - 1) << (c * _stride);
+      index /= _base;
+    }
+    return all;
+  }
+
+  private long getOwn(long index) {
+    long own = 0L;
+
+    for (int c = 0; c < _width; c++) {
+      long code = index % _base;
+      int tokens = 63 - Long.numberOfLeadingZeros(code + 1);
+
+      own |= (code + 1 - (1L << tokens)) << (c * _stride);
+      index /= _base;
+    }
+    return own;
+  }
+
+  private long getBits(Board board, Token color) {
+    long bits = 0L;
+
+    for (int c = 0; c < _width; c++) {
+      for (int row = 0; row < _height; row++) {
+        if (board.getSlot(c, row) == color) {
+          bits |= 1L << (c * _stride + _height - 1 - row);
+        }
+      }
+    }
+    return bits;
+  }
+
+  private long getWord(long word) {
+    return getLong(HEADER_SIZE + 8 * word);
+  }
+
+  private void setBit(long index) {
+    long offset = HEADER_SIZE + 8 * (index >>> 6);
+    putLong(offset, getLong(offset) | 1L << index);
+  }
+
+  private int getByte(long offset) {
+    return _segments[(int) (offset >>> SEGMENT_BITS)].get(
+        (int) (offset & SEGMENT_MASK)) & 0xff;
+  }
+
+  private void putByte(long offset, int value) {
+    _segments[(int) (offset >>> SEGMENT_BITS)].put(
+        (int) (offset & SEGMENT_MASK), (byte) value);
+  }
+
+  // Words are at offsets multiple of 8, so they never straddle two
+  // segments
+  private long getLong(long offset) {
+    return _segments[(int) (offset >>> SEGMENT_BITS)].getLong(
+        (int) (offset & SEGMENT_MASK));
+  }
+
+  private void putLong(long offset, long value) {
+    _segments[(int) (offset >>> SEGMENT_BITS)].putLong(
+        (int) (offset & SEGMENT_MASK), value);
+  }
+
+  // The file in segments, as a buffer can not be larger than 2GB
+  private static MappedByteBuffer[] map(FileChannel channel, long size,
+      boolean writable) throws IOException {
+    int segments = (int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS);
+    MappedByteBuffer[] buffers = new MappedByteBuffer[segments];
+
+    for (int i = 0; i < buffers.length; i++) {
+      long start = (long) i << SEGMENT_BITS;
+
+      buffers[i] = channel.map(writable ? FileChannel.MapMode.READ_WRITE
+          : FileChannel.MapMode.READ_ONLY, start, Math.min(size - start,
+          1L << SEGMENT_BITS));
+    }
+    return buffers;
+  }
+
+  private static DataInputStream openInput(File file) throws IOException {
+    return new DataInputStream(new BufferedInputStream(new FileInputStream(
+        file), BUFFER_SIZE));
+  }
+
+  private static DataOutputStream openOutput(File file) throws IOException {
+    return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(
+        file), BUFFER_SIZE));
+  }
+
+  // Arguments: table file, width and height
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Use: PopOutTable <file> [width] [height]");
+      System.exit(1);
+    }
+
+    int width = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+    int height = args.length > 2 ? Integer.parseInt(args[2]) : 7;
+    long start = System.currentTimeMillis();
+    PopOutTable table = generate(new File(args[0]), width, height);
+
+    System.out.println(table.size() + " positions in "
+        + (System.currentTimeMillis() - start) + " ms");
+  }
+}
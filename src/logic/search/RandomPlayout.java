@@ -0,0 +1,78 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import logic.Board;
+import logic.Move;
+import logic.Token;
+
+// Plays random legal moves on the board itself and takes them back
+public class RandomPlayout implements Playout {
+
+  // Longer games are taken as draws, since PopOut games may never end
+  public static final int MAX_MOVES = 200;
+
+  private int[] _moves;
+
+  public Token play(Board board, Token color, XorShiftRandom random) {
+    int cells = board.getWidth() * board.getHeight();
+    Token winner = Token.NONE;
+    int played = 0;
+
+    if (_moves == null || _moves.length < cells) {
+      _moves = new int[cells];
+    }
+
+    while (played < MAX_MOVES) {
+      int count = board.legalMoves(_moves);
+
+      if (count == 0) {
+        break;
+      }
+
+      int move = _moves[random.nextInt(count)];
+      board.makeMove(color, Move.getColumn(move), Move.getRow(move));
+      played++;
+
+      boolean connected = board.fourTokensConnected(color);
+      boolean opponentConnected = board.fourTokensConnected(color
+          .getOpposite());
+
+      if (connected != opponentConnected) {
+        winner = connected ? color : color.getOpposite();
+        break;
+      }
+      color = color.getOpposite();
+    }
+
+    while (played > 0) {
+      board.undoToken();
+      played--;
+    }
+    return winner;
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import logic.Board;
+import logic.Move;
+import logic.Token;
+
+// Every thread grows a tree of its own from the same position, with its
+// own random games. The visits of the root moves are added up at the end
+// and the most visited move overall is played
+public class RootParallelSearch implements SearchEngine {
+
+  private MonteCarloSearch _main;
+  private MonteCarloSearch[] _helpers;
+  private ExecutorService _executor;
+  private Future<?>[] _running;
+
+  private int[] _visits;
+  private float[] _wins;
+  private int _bestMove;
+  private int _score;
+  private int _depth;
+  private long _nodes;
+
+  // Every search needs a board of its own
+  public RootParallelSearch(MonteCarloSearch main, MonteCarloSearch[] helpers) {
+    _main = main;
+    _helpers = helpers;
+    _running = new Future<?>[helpers.length];
+    _visits = new int[main.getBoard().getWidth()
+        * main.getBoard().getHeight()];
+    _wins = new float[_visits.length];
+
+    if (helpers.length > 0) {
+      _executor = Executors.newFixedThreadPool(helpers.length,
+          new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, "search helper");
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+    }
+  }
+
+  public Board getBoard() {
+    return _main.getBoard();
+  }
+
+  public int getThreads() {
+    return _helpers.length + 1;
+  }
+
+  // Different seeds for every tree, so they do not play the same games
+  public void setSeed(long seed) {
+    _main.setSeed(seed);
+    for (int i = 0; i < _helpers.length; i++) {
+      _helpers[i].setSeed(seed + i + 1);
+    }
+  }
+
+  public int searchFor(final Token color, final long milliseconds) {
+    Token[][] grid = _main.getBoard().getGrid();
+
+    for (int i = 0; i < _helpers.length; i++) {
+      final MonteCarloSearch helper = _helpers[i];
+
+      helper.getBoard().setGrid(grid);
+      _running[i] = _executor.submit(new Runnable() {
+        public void run() {
+          helper.searchFor(color, milliseconds);
+        }
+      });
+    }
+
+    // Every tree stops on its own clock or playouts, so that a limit in
+    // playouts gives the same games every time
+    _main.searchFor(color, milliseconds);
+    for (int i = 0; i < _helpers.length; i++) {
+      waitFor(_running[i]);
+    }
+
+    merge();
+    return _bestMove;
+  }
+
+  // All the trees list the root moves in the same order, since they come
+  // from the same position
+  private void merge() {
+    int count = _main.getRootMoves();
+
+    _nodes = 0;
+    _depth = 0;
+    for (int i = 0; i < count; i++) {
+      _visits[i] = 0;
+      _wins[i] = 0;
+    }
+
+    for (int s = 0; s <= _helpers.length; s++) {
+      MonteCarloSearch search = s == 0 ? _main : _helpers[s - 1];
+
+      for (int i = 0; i < search.getRootMoves() && i < count; i++) {
+        _visits[i] += search.getRootVisits(i);
+        _wins[i] += search.getRootWins(i);
+      }
+      _nodes += search.getNodes();
+      _depth = Math.max(_depth, search.getDepth());
+    }
+
+    int best = -1;
+    for (int i = 0; i < count; i++) {
+      if (best == -1 || _visits[i] > _visits[best]) {
+        best = i;
+      }
+    }
+
+    if (best == -1) {
+      _bestMove = Move.NONE;
+      _score = 0;
+    } else {
+      _bestMove = _main.getRootMove(best);
+      _score = _visits[best] == 0 ? 0
+          : (int) (1000 * _wins[best] / _visits[best]);
+    }
+  }
+
+  public void requestStop() {
+    _main.requestStop();
+    for (int i = 0; i < _helpers.length; i++) {
+      _helpers[i].requestStop();
+    }
+  }
+
+  // Per mille of the games won with the best move, in all the trees
+  public int getScore() {
+    return _score;
+  }
+
+  public int getDepth() {
+    return _depth;
+  }
+
+  // Iterations of all the trees
+  public long getNodes() {
+    return _nodes;
+  }
+
+  public void shutdown() {
+    if (_executor != null) {
+      _executor.shutdownNow();
+    }
+  }
+
+  private void waitFor(Future<?> future) {
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import logic.Board;
+import logic.Token;
+
+// What the computer players need from a search
+public interface SearchEngine {
+
+  // Board the position is set on before every search
+  public Board getBoard();
+
+  // Best move for the color within the time, as the slot to be given to
+  // makeMove, or Move.NONE if there is none
+  public int searchFor(Token color, long milliseconds);
+
+  public int getScore();
+
+  public int getDepth();
+
+  public long getNodes();
+
+  // Ends the running search as soon as possible, which returns the best
+  // move found so far. A search started later is not stopped
+  public void requestStop();
+
+  // Releases the threads of the search, if any
+  public void shutdown();
+}
@@ -0,0 +1,183 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+// Options shared by the searching computer players
+public class SearchSettings {
+
+  public static final int DEFAULT_HASH_SIZE = 16;
+  public static final int DEFAULT_TIME_BUDGET = 1000;
+  public static final int DEFAULT_THREADS = 1;
+  public static final SearchDriver DEFAULT_DRIVER =
+      SearchDriver.PRINCIPAL_VARIATION;
+
+  private int _hashSize;
+  private int _timeBudget;
+  private int _threads;
+  private SearchAlgorithm _algorithm;
+  private SearchDriver _driver;
+  private int _playouts;
+  private String _book;
+  private String _table;
+  private boolean _pondering;
+  private int _nodeBudget;
+  private long _seed;
+  private boolean _perfect;
+
+  public SearchSettings() {
+    _hashSize = DEFAULT_HASH_SIZE;
+    _timeBudget = DEFAULT_TIME_BUDGET;
+    _threads = DEFAULT_THREADS;
+    _driver = DEFAULT_DRIVER;
+  }
+
+  public SearchSettings(SearchSettings settings) {
+    _hashSize = settings._hashSize;
+    _timeBudget = settings._timeBudget;
+    _threads = settings._threads;
+    _algorithm = settings._algorithm;
+    _driver = settings._driver;
+    _playouts = settings._playouts;
+    _book = settings._book;
+    _table = settings._table;
+    _pondering = settings._pondering;
+    _nodeBudget = settings._nodeBudget;
+    _seed = settings._seed;
+    _perfect = settings._perfect;
+  }
+
+  // Megabytes of every transposition table
+  public int getHashSize() {
+    return _hashSize;
+  }
+
+  public void setHashSize(int hashSize) {
+    _hashSize = hashSize;
+  }
+
+  // Milliseconds to think about every move
+  public int getTimeBudget() {
+    return _timeBudget;
+  }
+
+  public void setTimeBudget(int timeBudget) {
+    _timeBudget = timeBudget;
+  }
+
+  // Threads searching every move, the main one included
+  public int getThreads() {
+    return _threads;
+  }
+
+  public void setThreads(int threads) {
+    _threads = threads;
+  }
+
+  // null lets every game use its own
+  public SearchAlgorithm getAlgorithm() {
+    return _algorithm;
+  }
+
+  public void setAlgorithm(SearchAlgorithm algorithm) {
+    _algorithm = algorithm;
+  }
+
+  // How the alpha-beta searches go through every depth
+  public SearchDriver getDriver() {
+    return _driver;
+  }
+
+  public void setDriver(SearchDriver driver) {
+    _driver = driver;
+  }
+
+  // Most playouts of a Monte Carlo search, 0 for no limit but the time
+  public int getPlayouts() {
+    return _playouts;
+  }
+
+  public void setPlayouts(int playouts) {
+    _playouts = playouts;
+  }
+
+  // Opening book file, or null to search from the first move
+  public String getBook() {
+    return _book;
+  }
+
+  public void setBook(String book) {
+    _book = book;
+  }
+
+  // Solved PopOut positions, or null to search every move
+  public String getTable() {
+    return _table;
+  }
+
+  public void setTable(String table) {
+    _table = table;
+  }
+
+  // Whether to keep searching while the opponent thinks
+  public boolean isPondering() {
+    return _pondering;
+  }
+
+  public void setPondering(boolean pondering) {
+    _pondering = pondering;
+  }
+
+  // Nodes searched for every move instead of thinking for a time, 0 for
+  // none. The search then takes one thread and plays the same moves on any
+  // machine, however loaded
+  public int getNodeBudget() {
+    return _nodeBudget;
+  }
+
+  public void setNodeBudget(int nodeBudget) {
+    _nodeBudget = nodeBudget;
+  }
+
+  // Seed of the random games of a search with a node budget
+  public long getSeed() {
+    return _seed;
+  }
+
+  public void setSeed(long seed) {
+    _seed = seed;
+  }
+
+  // Whether connect4 players solve the positions of the standard board
+  // instead of searching them
+  public boolean isPerfect() {
+    return _perfect;
+  }
+
+  public void setPerfect(boolean perfect) {
+    _perfect = perfect;
+  }
+}
@@ -0,0 +1,584 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.Token;
+import logic.strategy.ConnectFourTokenMove;
+
+// Plays Connect Four on the standard board perfectly. The position is kept
+// in two words, the tokens of the color to move and all the tokens, laid
+// out as in BitBoard. The exact score comes from null window searches that
+// narrow the range of possible scores, with the bounds they find kept in a
+// transposition table.
+//
+// Scores follow the usual convention: a win with the last of its 21 tokens
+// is 1, and every token spared adds 1, up to 18 for a win with the fourth.
+// Losses are the same, negative, and a draw is 0
+public class Solver {
+
+  public static final int WIDTH = 7;
+  public static final int HEIGHT = 6;
+  public static final int MIN_SCORE = -(WIDTH * HEIGHT) / 2 + 3;
+  public static final int MAX_SCORE = (WIDTH * HEIGHT + 1) / 2 - 3;
+  public static final int DEFAULT_HASH_SIZE = 256;
+  // Positions with this many tokens at most are looked up in the book
+  public static final int DEFAULT_BOOK_PLIES = 8;
+
+  private static final int STRIDE = HEIGHT + 1;
+  private static final long BOTTOM = bottomMask();
+  private static final long BOARD = BOTTOM * ((1L << HEIGHT) - 1);
+  // Center columns first, they take part in more lines
+  private static final int[] COLUMN_ORDER = { 3, 2, 4, 1, 5, 0, 6 };
+
+  private TranspositionTable _table;
+  private OpeningBook _book;
+  private int _bookPlies;
+  private long _nodes;
+  private long _nodeLimit;
+  private boolean _aborted;
+
+  // Moves of every ply and the threats they make, allocated once
+  private long[][] _moves;
+  private int[][] _threats;
+
+  private long _current;
+  private long _mask;
+  private int _plies;
+
+  private int _score;
+  private int _bestMove;
+
+  public Solver() {
+    this(DEFAULT_HASH_SIZE);
+  }
+
+  public Solver(int hashSize) {
+    _table = new TranspositionTable(hashSize);
+    _moves = new long[WIDTH * HEIGHT + 1][WIDTH];
+    _threats = new int[WIDTH * HEIGHT + 1][WIDTH];
+  }
+
+  // Nodes after which a solve gives up, 0 for no limit. What was solved
+  // before giving up stays in the table for the next positions
+  public void setNodeLimit(long nodeLimit) {
+    _nodeLimit = nodeLimit;
+  }
+
+  // Whether the last position was given up, its score and move unknown
+  public boolean isAborted() {
+    return _aborted;
+  }
+
+  // Solved scores of the first plies, as written by generateBook
+  public void setBook(OpeningBook book, int plies) {
+    _book = book;
+    _bookPlies = plies;
+  }
+
+  // Whether the board is one the solver can play
+  public static boolean fits(Board board) {
+    return board.getWidth() == WIDTH && board.getHeight() == HEIGHT
+        && board.getConnectLength() == 4;
+  }
+
+  // Exact score of the position for the color to move
+  public int solve(Board board, Token color) {
+    setPosition(board, color);
+    _bestMove = Move.NONE;
+    _score = solve();
+    return _score;
+  }
+
+  // Best move of the position, as the slot to be given to makeMove. Among
+  // the moves with the best score, the first one from the center
+  public int bestMove(Board board, Token color) {
+    setPosition(board, color);
+    _table.newSearch();
+    _bestMove = Move.NONE;
+    _score = Integer.MIN_VALUE;
+
+    long current = _current;
+    long mask = _mask;
+    int plies = _plies;
+
+    for (int i = 0; i < WIDTH; i++) {
+      int column = COLUMN_ORDER[i];
+
+      if (!canPlay(column)) {
+        continue;
+      }
+
+      int score;
+      if (isWinningMove(column)) {
+        score = (WIDTH * HEIGHT + 1 - _plies) / 2;
+      } else {
+        play(column);
+        score = -solve();
+      }
+      _current = current;
+      _mask = mask;
+      _plies = plies;
+
+      if (_aborted) {
+        _bestMove = Move.NONE;
+        return Move.NONE;
+      }
+
+      if (score > _score) {
+        _score = score;
+        _bestMove = Move.encode(column, 0);
+      }
+    }
+    return _bestMove;
+  }
+
+  // Score of the last position solved
+  public int getScore() {
+    return _score;
+  }
+
+  public int getBestMove() {
+    return _bestMove;
+  }
+
+  // Plies left until the end of the game with perfect play from the last
+  // position solved: the winning token, or the last one of a draw
+  public int getDistance() {
+    return getDistance(_score, _plies);
+  }
+
+  public static int getDistance(int score, int plies) {
+    if (score > 0) {
+      return 2 * ((WIDTH * HEIGHT / 2 + 1 - score) - plies / 2) - 1;
+    }
+    if (score < 0) {
+      return 2 * ((WIDTH * HEIGHT / 2 + 1 + score) - (plies + 1) / 2);
+    }
+    return WIDTH * HEIGHT - plies;
+  }
+
+  public long getNodes() {
+    return _nodes;
+  }
+
+  public void reset() {
+    _table.clear();
+  }
+
+  private void setPosition(Board board, Token color) {
+    if (!fits(board)) {
+      throw new IllegalArgumentException("Only " + WIDTH + "x" + HEIGHT
+          + " boards connecting 4 can be solved");
+    }
+
+    _current = 0L;
+    _mask = 0L;
+    for (int column = 0; column < WIDTH; column++) {
+      for (int row = 0; row < HEIGHT; row++) {
+        Token token = board.getSlot(column, row);
+        long bit = 1L << (column * STRIDE + HEIGHT - 1 - row);
+
+        if (token != Token.NONE) {
+          _mask |= bit;
+          if (token == color) {
+            _current |= bit;
+          }
+        }
+      }
+    }
+    _plies = board.getTokens();
+    _nodes = 0;
+    _aborted = false;
+  }
+
+  // Null window searches halve the range of the score, trying first the
+  // windows next to a draw, where most positions are
+  private int solve() {
+    if (canWinNext()) {
+      return (WIDTH * HEIGHT + 1 - _plies) / 2;
+    }
+
+    int min = -(WIDTH * HEIGHT - _plies) / 2;
+    int max = (WIDTH * HEIGHT + 1 - _plies) / 2;
+
+    while (min < max) {
+      int middle = min + (max - min) / 2;
+
+      if (middle <= 0 && min / 2 < middle) {
+        middle = min / 2;
+      } else if (middle >= 0 && max / 2 > middle) {
+        middle = max / 2;
+      }
+
+      int score = negamax(middle, middle + 1);
+      if (_aborted) {
+        break;
+      }
+      if (score <= middle) {
+        max = score;
+      } else {
+        min = score;
+      }
+    }
+    return min;
+  }
+
+  // The color to move cannot win at once, which the caller has checked
+  private int negamax(int alpha, int beta) {
+    if (_nodeLimit != 0 && _nodes >= _nodeLimit) {
+      _aborted = true;
+      return alpha;
+    }
+    _nodes++;
+
+    long next = possibleNonLosingMoves();
+    if (next == 0L) {
+      return -(WIDTH * HEIGHT - _plies) / 2;
+    }
+    if (_plies >= WIDTH * HEIGHT - 2) {
+      return 0;
+    }
+
+    int min = -(WIDTH * HEIGHT - 2 - _plies) / 2;
+    if (alpha < min) {
+      alpha = min;
+      if (alpha >= beta) {
+        return alpha;
+      }
+    }
+
+    int max = (WIDTH * HEIGHT - 1 - _plies) / 2;
+    long key = getKey();
+    long data = _table.probe(key);
+
+    if (data != 0L) {
+      int score = TranspositionTable.getScore(data);
+
+      int bound = TranspositionTable.getBound(data);
+
+      if (bound == TranspositionTable.UPPER_BOUND) {
+        max = Math.min(max, score);
+      } else {
+        min = Math.max(min, score);
+      }
+    }
+
+    if (_book != null && _plies <= _bookPlies) {
+      int score = _book.getScore(getBookKey());
+
+      if (score != OpeningBook.NO_SCORE) {
+        return score;
+      }
+    }
+
+    if (min > alpha) {
+      alpha = min;
+      if (alpha >= beta) {
+        return alpha;
+      }
+    }
+    if (max < beta) {
+      beta = max;
+      if (alpha >= beta) {
+        return beta;
+      }
+    }
+
+    int count = orderMoves(next);
+    long[] moves = _moves[_plies];
+    long current = _current;
+    long mask = _mask;
+
+    for (int i = 0; i < count; i++) {
+      playMove(moves[i]);
+      int score = -negamax(-beta, -alpha);
+
+      _plies--;
+      _current = current;
+      _mask = mask;
+
+      // Nothing is stored from a search given up
+      if (_aborted) {
+        return alpha;
+      }
+      if (score >= beta) {
+        _table.store(key, WIDTH * HEIGHT - _plies,
+            TranspositionTable.LOWER_BOUND, Move.NONE, score);
+        return score;
+      }
+      if (score > alpha) {
+        alpha = score;
+      }
+    }
+
+    _table.store(key, WIDTH * HEIGHT - _plies,
+        TranspositionTable.UPPER_BOUND, Move.NONE, alpha);
+    return alpha;
+  }
+
+  // Moves that make the most threats first, and the center ones among
+  // equals. Returns how many there are
+  private int orderMoves(long next) {
+    long[] moves = _moves[_plies];
+    int[] threats = _threats[_plies];
+    int count = 0;
+
+    for (int i = 0; i < WIDTH; i++) {
+      long move = next & columnMask(COLUMN_ORDER[i]);
+
+      if (move != 0L) {
+        int score = Long.bitCount(winningPositions(_current | move, _mask
+            | move));
+        int j = count++;
+
+        // Insertion sort, which keeps the center first order among equals
+        while (j > 0 && threats[j - 1] < score) {
+          moves[j] = moves[j - 1];
+          threats[j] = threats[j - 1];
+          j--;
+        }
+        moves[j] = move;
+        threats[j] = score;
+      }
+    }
+    return count;
+  }
+
+  private boolean canPlay(int column) {
+    return (_mask & topMask(column)) == 0L;
+  }
+
+  private void play(int column) {
+    playMove((_mask + bottomMask(column)) & columnMask(column));
+  }
+
+  // The color to move plays, and the other one is to move then
+  private void playMove(long move) {
+    _current ^= _mask;
+    _mask |= move;
+    _plies++;
+  }
+
+  private boolean isWinningMove(int column) {
+    return (winningPositions(_current, _mask) & possible()
+        & columnMask(column)) != 0L;
+  }
+
+  private boolean canWinNext() {
+    return (winningPositions(_current, _mask) & possible()) != 0L;
+  }
+
+  private long possible() {
+    return (_mask + BOTTOM) & BOARD;
+  }
+
+  // Moves that do not give the opponent a win on the next move
+  private long possibleNonLosingMoves() {
+    long possible = possible();
+    long opponentWins = winningPositions(_current ^ _mask, _mask);
+    long forced = possible & opponentWins;
+
+    if (forced != 0L) {
+      if ((forced & (forced - 1)) != 0L) {
+        // Two threats cannot both be blocked
+        return 0L;
+      }
+      possible = forced;
+    }
+    // Not below a winning slot of the opponent
+    return possible & ~(opponentWins >>> 1);
+  }
+
+  // Empty slots that would complete four of the tokens
+  private static long winningPositions(long position, long mask) {
+    // Vertical
+    long r = (position << 1) & (position << 2) & (position << 3);
+
+    for (int shift = STRIDE - 1; shift <= STRIDE + 1; shift++) {
+      long p = (position << shift) & (position << 2 * shift);
+      r |= p & (position << 3 * shift);
+      r |= p & (position >>> shift);
+      p = (position >>> shift) & (position >>> 2 * shift);
+      r |= p & (position << shift);
+      r |= p & (position >>> 3 * shift);
+    }
+    return r & (BOARD ^ mask);
+  }
+
+  // Unique for every position, mixed so that the low bits spread the
+  // positions over the table. The mix is a bijection, so no two positions
+  // share a key
+  private long getKey() {
+    long key = _current + _mask;
+
+    key ^= key >>> 31;
+    key *= 0x7fb5d329728ea185L;
+    key ^= key >>> 27;
+    return key;
+  }
+
+  // The same for a position and its mirror image
+  private long getBookKey() {
+    long key = _current + _mask;
+    long mirror = 0L;
+
+    for (int column = 0; column < WIDTH; column++) {
+      long bits = (key >>> (column * STRIDE)) & ((1L << STRIDE) - 1);
+
+      mirror |= bits << ((WIDTH - 1 - column) * STRIDE);
+    }
+    return Math.min(key, mirror);
+  }
+
+  private static long bottomMask() {
+    long mask = 0L;
+
+    for (int column = 0; column < WIDTH; column++) {
+      mask |= bottomMask(column);
+    }
+    return mask;
+  }
+
+  private static long bottomMask(int column) {
+    return 1L << (column * STRIDE);
+  }
+
+  private static long topMask(int column) {
+    return 1L << (column * STRIDE + HEIGHT - 1);
+  }
+
+  private static long columnMask(int column) {
+    return ((1L << HEIGHT) - 1) << (column * STRIDE);
+  }
+
+  // Solves every position of the first plies, yellow moving first, and
+  // writes their scores in a book for setBook
+  public void generateBook(File file, int plies) throws IOException {
+    SortedMap<Long, int[]> entries = new TreeMap<Long, int[]>();
+
+    _current = 0L;
+    _mask = 0L;
+    _plies = 0;
+    addToBook(entries, plies);
+    OpeningBook.write(file, entries);
+  }
+
+  private void addToBook(SortedMap<Long, int[]> entries, int plies) {
+    long key = getBookKey();
+
+    if (entries.containsKey(key) || canWinNext()) {
+      return;
+    }
+
+    long current = _current;
+    long mask = _mask;
+    int ply = _plies;
+
+    entries.put(key, new int[] { Move.NONE, solve() });
+    if (ply == plies) {
+      return;
+    }
+
+    for (int column = 0; column < WIDTH; column++) {
+      if (canPlay(column)) {
+        play(column);
+        addToBook(entries, plies);
+        _current = current;
+        _mask = mask;
+        _plies = ply;
+      }
+    }
+  }
+
+  // Solves positions given as the columns played, from 1 to 7, one per
+  // argument or one per line of the input. Use -b <book> to read a book
+  // and -g <book> [plies] to generate one
+  public static void main(String[] args) throws IOException {
+    Solver solver = new Solver();
+    int first = 0;
+
+    if (args.length > 1 && args[0].equals("-g")) {
+      int plies = args.length > 2 ? Integer.parseInt(args[2])
+          : DEFAULT_BOOK_PLIES;
+
+      solver.generateBook(new File(args[1]), plies);
+      return;
+    }
+    if (args.length > 1 && args[0].equals("-b")) {
+      solver.setBook(OpeningBook.open(new File(args[1])), DEFAULT_BOOK_PLIES);
+      first = 2;
+    }
+
+    if (args.length > first) {
+      for (int i = first; i < args.length; i++) {
+        solver.printSolution(args[i]);
+      }
+    } else {
+      BufferedReader input = new BufferedReader(new InputStreamReader(
+          System.in));
+      String line;
+
+      while ((line = input.readLine()) != null) {
+        if (line.trim().length() > 0) {
+          solver.printSolution(line.trim());
+        }
+      }
+    }
+  }
+
+  private void printSolution(String sequence) {
+    Board board = new BitBoard(WIDTH, HEIGHT, new ConnectFourTokenMove());
+    Token color = Token.YELLOW;
+
+    for (int i = 0; i < sequence.length(); i++) {
+      int column = sequence.charAt(i) - '1';
+
+      if (column < 0 || column >= WIDTH
+          || board.makeMove(color, column, 0) == Move.NONE) {
+        System.out.println(sequence + " invalid");
+        return;
+      }
+      color = color.getOpposite();
+    }
+
+    long start = System.currentTimeMillis();
+    int score = solve(board, color);
+
+    System.out.println(sequence + " " + score + " " + getDistance() + " "
+        + getNodes() + " " + (System.currentTimeMillis() - start) + " ms");
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.util.Arrays;
+
+import logic.Move;
+
+public class TranspositionTable {
+
+  public static final int EXACT = 1;
+  public static final int LOWER_BOUND = 2;
+  public static final int UPPER_BOUND = 3;
+
+  // Every bucket holds two entries of two longs each: the key xor the data,
+  // and the data. The first entry keeps the deepest search of the current
+  // generation, the second one the latest. A store racing with another
+  // thread leaves a key that does not match its data, so the entry just
+  // misses instead of being taken for a different position, and no lock is
+  // needed.
+  //
+  // Data, from the lowest bit: score (32), move (16), depth (8), bound (2),
+  // generation (6). The bound is never 0, so a 0 data always means a miss
+  private static final int ENTRY = 2;
+  private static final int BUCKET = 2 * ENTRY;
+  private static final int BUCKET_BYTES = BUCKET * 8;
+  private static final int GENERATIONS = 64;
+
+  private final long[] _entries;
+  private final long _mask;
+  // Set before the threads of a search start
+  private int _generation;
+
+  public TranspositionTable(int megabytes) {
+    long buckets = Long.highestOneBit(Math.max(1L,
+        ((long) megabytes << 20) / BUCKET_BYTES));
+
+    // Arrays are indexed by int
+    buckets = Math.min(buckets, (Integer.MAX_VALUE / BUCKET + 1) / 2);
+    _entries = new long[(int) buckets * BUCKET];
+    _mask = buckets - 1;
+  }
+
+  // Data stored for the key, or 0 if there is none
+  public long probe(long key) {
+    int bucket = (int) (key & _mask) * BUCKET;
+
+    for (int entry = bucket; entry < bucket + BUCKET; entry += ENTRY) {
+      long data = _entries[entry + 1];
+
+      if ((_entries[entry] ^ data) == key && data != 0L) {
+        return data;
+      }
+    }
+    return 0L;
+  }
+
+  public void store(long key, int depth, int bound, int move, int score) {
+    int bucket = (int) (key & _mask) * BUCKET;
+    long data = (score & 0xffffffffL) | ((long) (move & 0xffff) << 32)
+        | ((long) (depth & 0xff) << 48) | ((long) bound << 56)
+        | ((long) _generation << 58);
+    long deepest = _entries[bucket + 1];
+
+    // Deep entries of earlier searches are of positions gone by now, and
+    // would otherwise keep their slot for good
+    if (deepest == 0L || getDepth(deepest) <= depth
+        || getGeneration(deepest) != _generation
+        || (_entries[bucket] ^ deepest) == key) {
+      _entries[bucket] = key ^ data;
+      _entries[bucket + 1] = data;
+    } else {
+      _entries[bucket + ENTRY] = key ^ data;
+      _entries[bucket + ENTRY + 1] = data;
+    }
+  }
+
+  public void clear() {
+    Arrays.fill(_entries, 0L);
+  }
+
+  // Entries stored from now on are of a new search, which may replace the
+  // deepest ones of the others
+  public void newSearch() {
+    _generation = (_generation + 1) % GENERATIONS;
+  }
+
+  public int getBuckets() {
+    return (int) (_mask + 1);
+  }
+
+  public static int getScore(long data) {
+    return (int) data;
+  }
+
+  // Move.NONE is kept as 0xffff
+  public static int getMove(long data) {
+    int move = (int) (data >>> 32) & 0xffff;
+    return move == 0xffff ? Move.NONE : move;
+  }
+
+  public static int getDepth(long data) {
+    return (int) (data >>> 48) & 0xff;
+  }
+
+  public static int getBound(long data) {
+    return (int) (data >>> 56) & 0x3;
+  }
+
+  public static int getGeneration(long data) {
+    return (int) (data >>> 58);
+  }
+}
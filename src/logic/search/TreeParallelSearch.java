@@ -0,0 +1,420 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import logic.Board;
+import logic.Move;
+import logic.Token;
+
+// Monte Carlo tree search where all the threads grow one tree. The counters
+// of the nodes are atomic, and a thread going down a node adds a virtual
+// loss to it until its playout is back, so that the other threads try
+// other moves meanwhile. A node is expanded by the first thread to claim
+// it, the others play out from it as a leaf in the meantime
+public class TreeParallelSearch implements SearchEngine {
+
+  // Visits lost by a node while a playout below it is running
+  public static final int VIRTUAL_LOSS = 3;
+  private static final int CLOCK_ITERATIONS = 64;
+
+  private static final int UNEXPANDED = -1;
+  private static final int EXPANDING = -2;
+  // The tree is full and the node stays a leaf
+  private static final int NO_ROOM = -3;
+  private static final int ONGOING = 0;
+  private static final int WIN = 1;
+  private static final int LOSS = 2;
+  private static final int DRAW = 3;
+  // Nobody has looked yet whether the move of the node ends the game
+  private static final int UNSCORED = 4;
+
+  // The moves and the child counts are written before the first child is
+  // published, which makes them visible to the other threads
+  private int[] _moves;
+  private int[] _childCount;
+  private AtomicIntegerArray _firstChild;
+  private AtomicIntegerArray _visits;
+  // Half points of the color that made the move of the node
+  private AtomicIntegerArray _wins;
+  private AtomicIntegerArray _outcomes;
+  private AtomicInteger _size;
+  private AtomicLong _iterations;
+
+  private Worker[] _workers;
+  private ExecutorService _executor;
+  private Future<?>[] _running;
+  private int _iterationLimit;
+  private volatile long _deadline;
+  private volatile boolean _stopRequested;
+
+  private int _bestMove;
+  private int _score;
+
+  // A board and a playout for every thread
+  public TreeParallelSearch(Board[] boards, Playout[] playouts, int nodes) {
+    _moves = new int[nodes];
+    _childCount = new int[nodes];
+    _firstChild = new AtomicIntegerArray(nodes);
+    _visits = new AtomicIntegerArray(nodes);
+    _wins = new AtomicIntegerArray(nodes);
+    _outcomes = new AtomicIntegerArray(nodes);
+    _size = new AtomicInteger();
+    _iterations = new AtomicLong();
+    _workers = new Worker[boards.length];
+    _running = new Future<?>[boards.length - 1];
+
+    for (int i = 0; i < boards.length; i++) {
+      _workers[i] = new Worker(boards[i], playouts[i], i);
+    }
+
+    if (boards.length > 1) {
+      _executor = Executors.newFixedThreadPool(boards.length - 1,
+          new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, "search helper");
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+    }
+  }
+
+  public Board getBoard() {
+    return _workers[0]._board;
+  }
+
+  public int getThreads() {
+    return _workers.length;
+  }
+
+  public void setSeed(long seed) {
+    for (int i = 0; i < _workers.length; i++) {
+      _workers[i]._random.setSeed(seed + i);
+    }
+  }
+
+  // Most iterations of all the threads together, 0 for no limit but the
+  // time
+  public int getIterationLimit() {
+    return _iterationLimit;
+  }
+
+  public void setIterationLimit(int iterationLimit) {
+    _iterationLimit = iterationLimit;
+  }
+
+  public void requestStop() {
+    _stopRequested = true;
+  }
+
+  public int searchFor(final Token color, long milliseconds) {
+    Token[][] grid = getBoard().getGrid();
+
+    _deadline = milliseconds == Long.MAX_VALUE ? Long.MAX_VALUE : System
+        .currentTimeMillis() + milliseconds;
+    _stopRequested = false;
+    _iterations.set(0);
+    _size.set(1);
+    resetNode(0, Move.NONE, ONGOING);
+
+    for (int i = 1; i < _workers.length; i++) {
+      final Worker worker = _workers[i];
+
+      worker._board.setGrid(grid);
+      _running[i - 1] = _executor.submit(new Runnable() {
+        public void run() {
+          worker.run(color);
+        }
+      });
+    }
+
+    _workers[0].run(color);
+    for (int i = 0; i < _running.length; i++) {
+      waitFor(_running[i]);
+    }
+    return getBestMove();
+  }
+
+  // The most visited move at the root
+  public int getBestMove() {
+    int first = _firstChild.get(0);
+    int count = first < 0 ? 0 : _childCount[0];
+    int best = -1;
+
+    for (int child = first; child < first + count; child++) {
+      if (best == -1 || _visits.get(child) > _visits.get(best)) {
+        best = child;
+      }
+    }
+
+    if (best == -1) {
+      _score = 0;
+      return _bestMove = Move.NONE;
+    }
+    _score = _visits.get(best) == 0 ? 0 : 500 * _wins.get(best)
+        / _visits.get(best);
+    return _bestMove = _moves[best];
+  }
+
+  // Per mille of the games won with the best move
+  public int getScore() {
+    return _score;
+  }
+
+  // Deepest ply reached within the tree by any thread
+  public int getDepth() {
+    int depth = 0;
+
+    for (int i = 0; i < _workers.length; i++) {
+      depth = Math.max(depth, _workers[i]._depth);
+    }
+    return depth;
+  }
+
+  // Iterations of all the threads
+  public long getNodes() {
+    return _iterations.get();
+  }
+
+  public int getTreeSize() {
+    return Math.min(_size.get(), _moves.length);
+  }
+
+  public void shutdown() {
+    if (_executor != null) {
+      _executor.shutdownNow();
+    }
+  }
+
+  private void resetNode(int node, int move, int outcome) {
+    _moves[node] = move;
+    _childCount[node] = 0;
+    _visits.set(node, 0);
+    _wins.set(node, 0);
+    _outcomes.set(node, outcome);
+    _firstChild.set(node, UNEXPANDED);
+  }
+
+  private void waitFor(Future<?> future) {
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  // What every thread keeps for itself
+  private class Worker {
+
+    private Board _board;
+    private Playout _playout;
+    private XorShiftRandom _random;
+    private int[] _path;
+    private int[] _legalMoves;
+    private int _depth;
+
+    private Worker(Board board, Playout playout, long seed) {
+      _board = board;
+      _playout = playout;
+      _random = new XorShiftRandom(System.nanoTime() + seed);
+      _path = new int[RandomPlayout.MAX_MOVES];
+      _legalMoves = new int[board.getWidth() * board.getHeight()];
+    }
+
+    private void run(Token color) {
+      long iterations = 0;
+
+      _depth = 0;
+      while (true) {
+        long iteration = _iterations.getAndIncrement();
+
+        if (_iterationLimit != 0 && iteration >= _iterationLimit) {
+          break;
+        }
+        if (iterations++ % CLOCK_ITERATIONS == 0 && iterations > 1
+            && (_stopRequested || System.currentTimeMillis() >= _deadline)) {
+          break;
+        }
+        iterate(color);
+      }
+
+      // The iterations that were not played are not counted
+      _iterations.decrementAndGet();
+    }
+
+    private void iterate(Token rootColor) {
+      Token color = rootColor;
+      int node = 0;
+      int ply = 0;
+
+      _path[0] = 0;
+      _visits.incrementAndGet(0);
+
+      while (_outcomes.get(node) == ONGOING && ply + 1 < _path.length) {
+        int first = _firstChild.get(node);
+
+        if (first == UNEXPANDED) {
+          first = expand(node);
+        }
+        if (first < 0) {
+          break;
+        }
+        if (_childCount[node] == 0) {
+          _outcomes.set(node, DRAW);
+          break;
+        }
+
+        int child = select(node, first);
+        boolean visited = _visits.getAndAdd(child, VIRTUAL_LOSS) > 0;
+
+        _board.makeMove(color, Move.getColumn(_moves[child]), Move
+            .getRow(_moves[child]));
+        _path[++ply] = child;
+        color = color.getOpposite();
+        node = child;
+
+        // A thread may get here before the first one has scored the
+        // child, and rather than go on past the end of the game it scores
+        // the child as well, to the same outcome
+        if (_outcomes.get(child) == UNSCORED) {
+          _outcomes.compareAndSet(child, UNSCORED, getOutcome(color
+              .getOpposite()));
+        }
+        if (!visited) {
+          break;
+        }
+      }
+
+      if (ply > _depth) {
+        _depth = ply;
+      }
+
+      // Seen by the color that made the move of the leaf
+      int outcome = _outcomes.get(node);
+
+      if (outcome == ONGOING) {
+        Token winner = _playout.play(_board, color, _random);
+
+        if (winner == Token.NONE) {
+          outcome = DRAW;
+        } else {
+          outcome = winner == color ? LOSS : WIN;
+        }
+      }
+
+      for (int i = ply; i >= 0; i--) {
+        if (i > 0) {
+          _visits.addAndGet(_path[i], 1 - VIRTUAL_LOSS);
+          _board.undoToken();
+        }
+
+        if (outcome == WIN) {
+          _wins.addAndGet(_path[i], 2);
+        } else if (outcome == DRAW) {
+          _wins.addAndGet(_path[i], 1);
+        }
+
+        if (outcome != DRAW) {
+          outcome = outcome == WIN ? LOSS : WIN;
+        }
+      }
+    }
+
+    // Only the thread that claims the node expands it. Returns the first
+    // child, or a negative value if the node has to stay a leaf for now
+    private int expand(int node) {
+      if (!_firstChild.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+        return -1;
+      }
+
+      int count = _board.legalMoves(_legalMoves);
+      int first = _size.getAndAdd(count);
+
+      if (first + count > _moves.length) {
+        _firstChild.set(node, NO_ROOM);
+        return NO_ROOM;
+      }
+
+      for (int i = 0; i < count; i++) {
+        resetNode(first + i, _legalMoves[i], UNSCORED);
+      }
+      _childCount[node] = count;
+      _firstChild.set(node, first);
+      return first;
+    }
+
+    // UCT over the counters as they are, virtual losses included
+    private int select(int node, int first) {
+      int count = _childCount[node];
+      double logVisits = Math.log(Math.max(1, _visits.get(node)));
+      double bestValue = Double.NEGATIVE_INFINITY;
+      int best = first;
+
+      for (int child = first; child < first + count; child++) {
+        int visits = _visits.get(child);
+
+        if (visits == 0) {
+          return child;
+        }
+
+        double value = _wins.get(child) / (2.0 * visits)
+            + MonteCarloSearch.EXPLORATION * Math.sqrt(logVisits / visits);
+
+        if (value > bestValue) {
+          bestValue = value;
+          best = child;
+        }
+      }
+      return best;
+    }
+
+    private int getOutcome(Token color) {
+      boolean connected = _board.fourTokensConnected(color);
+      boolean opponentConnected = _board.fourTokensConnected(color
+          .getOpposite());
+
+      if (connected && !opponentConnected) {
+        return WIN;
+      }
+      if (opponentConnected && !connected) {
+        return LOSS;
+      }
+      return ONGOING;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+// Small and fast generator for random playouts, which java.util.Random
+// slows down with its thread safety. The same seed gives the same numbers
+public class XorShiftRandom {
+
+  private long _state;
+
+  public XorShiftRandom() {
+    this(System.nanoTime());
+  }
+
+  public XorShiftRandom(long seed) {
+    setSeed(seed);
+  }
+
+  public void setSeed(long seed) {
+    // The state must never be 0
+    _state = seed == 0 ? 0x2545f4914f6cdd1dL : seed;
+  }
+
+  public long nextLong() {
+    _state ^= _state << 13;
+    _state ^= _state >>> 7;
+    _state ^= _state << 17;
+    return _state;
+  }
+
+  // From 0 to bound - 1
+  public int nextInt(int bound) {
+    return (int) (((nextLong() >>> 33) * bound) >>> 31);
+  }
+
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+}
@@ -0,0 +1,300 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import logic.Board;
+import logic.Move;
+import logic.Token;
+
+// Young Brothers Wait: the first move of a node is searched alone, and once
+// it has set the bounds the rest of them are searched in parallel, each on
+// its own copy of the board. When one of them cuts the node off, the others
+// give up. Near the leaves the tree is searched serially.
+//
+// There is no transposition table, and the killers and history start anew
+// at every node, so the scores, and the moves chosen from them, do not
+// depend on how the threads happen to run
+public class YoungBrothersSearch implements SearchEngine {
+
+  // Remaining depth below which splitting is not worth the copies
+  public static final int SERIAL_DEPTH = 4;
+
+  private ForkJoinPool _pool;
+  private Board _board;
+  private AtomicLong _nodes;
+  private ThreadLocal<Worker> _workers;
+
+  private volatile long _deadline;
+
+  private int _bestMove;
+  private int _score;
+  private int _depth;
+
+  public YoungBrothersSearch(Board board, int threads) {
+    _board = board;
+    _pool = new ForkJoinPool(threads);
+    _nodes = new AtomicLong();
+    _workers = new ThreadLocal<Worker>() {
+      protected Worker initialValue() {
+        return new Worker(_board);
+      }
+    };
+  }
+
+  public Board getBoard() {
+    return _board;
+  }
+
+  // Best move at the given depth, with no time limit
+  public int search(Token color, int depth) {
+    _deadline = Long.MAX_VALUE;
+    _nodes.set(0);
+
+    Node root = searchDepth(color, depth);
+
+    _bestMove = root._bestMove;
+    _score = root._best;
+    _depth = depth;
+    return _bestMove;
+  }
+
+  public int searchFor(Token color, long milliseconds) {
+    int bestMove = Move.NONE;
+    int score = 0;
+    int depth = 0;
+
+    _deadline = milliseconds >= Long.MAX_VALUE / 1000000L ? Long.MAX_VALUE
+        : System.nanoTime() + milliseconds * 1000000L;
+    _nodes.set(0);
+    while (depth < AlphaBetaSearch.MAX_DEPTH) {
+      Node root = searchDepth(color, depth + 1);
+
+      if (isTimeOver()) {
+        if (bestMove == Move.NONE) {
+          bestMove = root._bestMove;
+        }
+        break;
+      }
+      bestMove = root._bestMove;
+      score = root._best;
+      depth++;
+
+      if (AlphaBetaSearch.isDecisive(score)) {
+        break;
+      }
+    }
+    _bestMove = bestMove;
+    _score = score;
+    _depth = depth;
+    return bestMove;
+  }
+
+  // The time is over at once
+  public void requestStop() {
+    _deadline = Long.MIN_VALUE;
+  }
+
+  public int getScore() {
+    return _score;
+  }
+
+  public int getDepth() {
+    return _depth;
+  }
+
+  public long getNodes() {
+    return _nodes.get();
+  }
+
+  public void shutdown() {
+    _pool.shutdownNow();
+  }
+
+  private Node searchDepth(Token color, int depth) {
+    Node root = new Node(null, _board, color, depth, 0,
+        -AlphaBetaSearch.INFINITY, AlphaBetaSearch.INFINITY);
+
+    _pool.invoke(root);
+    return root;
+  }
+
+  private boolean isTimeOver() {
+    return System.nanoTime() > _deadline;
+  }
+
+  private class Node extends RecursiveTask<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Node _parent;
+    private final Board _board;
+    private final Token _color;
+    private final int _depth;
+    private final int _ply;
+    private final int _beta;
+
+    private volatile int _alpha;
+    private volatile boolean _stopped;
+    private int _best;
+    private int _bestMove;
+
+    private Node(Node parent, Board board, Token color, int depth, int ply,
+        int alpha, int beta) {
+      _parent = parent;
+      _board = board;
+      _color = color;
+      _depth = depth;
+      _ply = ply;
+      _alpha = alpha;
+      _beta = beta;
+      _best = -AlphaBetaSearch.INFINITY;
+      _bestMove = Move.NONE;
+    }
+
+    protected Integer compute() {
+      Worker serial = _workers.get();
+
+      serial.setNode(this);
+      if (_depth <= SERIAL_DEPTH) {
+        long nodes = serial.getNodes();
+
+        _best = serial.searchNode(_color, _depth, _ply, _alpha, getBeta());
+        _bestMove = serial.getBestMove();
+        _nodes.addAndGet(serial.getNodes() - nodes);
+        return _best;
+      }
+
+      int[] moves = new int[_board.getWidth() * _board.getHeight()];
+      int count = _board.legalMoves(moves);
+
+      _nodes.incrementAndGet();
+      if (count == 0) {
+        _best = 0;
+        return _best;
+      }
+      serial.orderMoves(moves, count, Move.NONE, _color, _ply);
+
+      // The eldest brother, on this very board
+      _board.makeMove(_color, Move.getColumn(moves[0]), Move.getRow(moves[0]));
+      int score = AlphaBetaSearch.getOutcome(_board, _color, _ply + 1);
+
+      if (score == AlphaBetaSearch.UNKNOWN) {
+        Node child = new Node(this, _board, _color.getOpposite(), _depth - 1,
+            _ply + 1, -getBeta(), -_alpha);
+        score = -child.compute();
+      }
+      _board.undoToken();
+      improve(score, moves[0]);
+
+      if (count == 1 || _alpha >= getBeta() || isStopped()) {
+        return _best;
+      }
+
+      // The younger ones, once the bounds are known
+      Node[] children = new Node[count];
+      int[] outcomes = new int[count];
+
+      for (int i = 1; i < count; i++) {
+        Board board = _board.copy();
+
+        board.makeMove(_color, Move.getColumn(moves[i]), Move.getRow(moves[i]));
+        outcomes[i] = AlphaBetaSearch.getOutcome(board, _color, _ply + 1);
+
+        if (outcomes[i] == AlphaBetaSearch.UNKNOWN) {
+          children[i] = new Node(this, board, _color.getOpposite(),
+              _depth - 1, _ply + 1, -getBeta(), -_alpha);
+          children[i].fork();
+        }
+      }
+
+      for (int i = 1; i < count; i++) {
+        score = children[i] == null ? outcomes[i] : -children[i].join();
+
+        if (!isStopped()) {
+          improve(score, moves[i]);
+
+          if (_alpha >= getBeta()) {
+            _stopped = true;
+          }
+        }
+      }
+      return _best;
+    }
+
+    // Bounds may have narrowed above since the node was created
+    private int getBeta() {
+      return _parent == null ? _beta : Math.min(_beta, -_parent._alpha);
+    }
+
+    private boolean isStopped() {
+      for (Node node = this; node != null; node = node._parent) {
+        if (node._stopped) {
+          return true;
+        }
+      }
+      return isTimeOver();
+    }
+
+    private void improve(int score, int move) {
+      if (score > _best) {
+        _best = score;
+        _bestMove = move;
+
+        if (score > _alpha) {
+          _alpha = score;
+        }
+      }
+    }
+  }
+
+  // Serial search of one thread of the pool, which works on the board of
+  // whatever node it is given. Nodes waiting on their children may lend
+  // the thread to others, but never while they use the search
+  private class Worker extends AlphaBetaSearch {
+
+    private Node _node;
+
+    private Worker(Board board) {
+      super(board);
+    }
+
+    private void setNode(Node node) {
+      _node = node;
+      _board = node._board;
+      ensurePlies(node._ply + 1);
+      clearOrdering();
+    }
+
+    protected boolean isStopRequested() {
+      return _node.isStopped();
+    }
+  }
+}
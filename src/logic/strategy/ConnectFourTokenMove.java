@@ -28,25 +28,67 @@ package logic.strategy;
 
 import exception.InvalidMove;
 import logic.Board;
+import logic.Move;
 import logic.Position;
 import logic.Token;
+import logic.UndoRecord;
 
 public class ConnectFourTokenMove implements TokenMoveStrategy {
 
   public Position putToken(Board board, Token token, int column, int row)
       throws InvalidMove {
+    int move = makeMove(board, token, column, row);
+
+    if (move == Move.NONE) {
+      throw new InvalidMove();
+    }
+    return Position.valueOf(Move.getColumn(move), Move.getRow(move));
+  }
+
+  public int makeMove(Board board, Token token, int column, int row) {
     if (token != Token.NONE && board.isValidColumn(column)
         && !board.isColumnFull(column)) {
 
-      board.setCell(column,
-          (board.getHeight() - 1) - (board.getTokensInColumn(column)), token);
+      int landingRow = (board.getHeight() - 1)
+          - (board.getTokensInColumn(column));
+
+      board.pushUndoRecord(UndoRecord.placed(column, landingRow));
+      board.setCell(column, landingRow, token);
       board.setTokensInColumn(column, board.getTokensInColumn(column) + 1);
       board.setTokens(board.getTokens() + 1);
+      board.updateConnections(column, landingRow);
 
-      return new Position(column, (board.getHeight() - 1)
-          - (board.getTokensInColumn(column) - 1));
-    } else {
-      throw new InvalidMove();
+      return Move.encode(column, landingRow);
+    }
+    return Move.NONE;
+  }
+
+  public int computeLanding(Board board, int column, int row) {
+    return Move.encode(column, (board.getHeight() - 1)
+        - board.getTokensInColumn(column));
+  }
+
+  public int legalMoves(Board board, int[] moves) {
+    int count = 0;
+
+    for (int column = 0; column < board.getWidth(); column++) {
+      if (!board.isColumnFull(column)) {
+        moves[count++] = Move.encode(column, 0);
+      }
     }
+    return count;
+  }
+
+  public int getSymmetries(int width, int height) {
+    // Only the mirror image, gravity always pulls down
+    return 2;
+  }
+
+  public void undoToken(Board board, int record) {
+    int column = UndoRecord.getColumn(record);
+
+    board.setCell(column, UndoRecord.getRow(record), Token.NONE);
+    board.setTokensInColumn(column, board.getTokensInColumn(column) - 1);
+    board.setTokens(board.getTokens() - 1);
   }
 }
@@ -0,0 +1,129 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.strategy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class GravityTable {
+
+  private static final Map<Long, GravityTable> _tables = new HashMap<Long, GravityTable>();
+
+  // Final, so that a table handed to another thread is seen whole
+  private final int _width;
+  private final int _height;
+  private final byte[] _gravity;
+
+  public static GravityTable getInstance(int width, int height) {
+    Long key = ((long) width << 32) | height;
+
+    synchronized (_tables) {
+      GravityTable table = _tables.get(key);
+
+      if (table == null) {
+        table = new GravityTable(width, height);
+        _tables.put(key, table);
+      }
+      return table;
+    }
+  }
+
+  private GravityTable(int width, int height) {
+    _width = width;
+    _height = height;
+    _gravity = new byte[width * height];
+
+    for (int column = 0; column < width; column++) {
+      for (int row = 0; row < height; row++) {
+        _gravity[column * height + row] = (byte) computeGravity(column, row,
+            width, height);
+      }
+    }
+  }
+
+  public boolean fits(int width, int height) {
+    return _width == width && _height == height;
+  }
+
+  // Both components of the gravity, each one from -1 to 1, packed in an int
+  public int getGravity(int column, int row) {
+    return _gravity[column * _height + row];
+  }
+
+  public static int getHorizontalGravity(int gravity) {
+    return gravity / 3 - 1;
+  }
+
+  public static int getVerticalGravity(int gravity) {
+    return gravity % 3 - 1;
+  }
+
+  private static int computeGravity(int column, int row, int columns, int rows) {
+    int superiorGravity = row;
+    int inferiorGravity = (rows - 1) - row;
+    int leftGravity = column;
+    int rightGravity = (columns - 1) - column;
+
+    int bestVertical = Integer.MAX_VALUE, bestHorizontal = Integer.MAX_VALUE;
+    int gravHorizontal = 0, gravVertical = 0;
+
+    if (superiorGravity < inferiorGravity) {
+
+      bestVertical = superiorGravity;
+      gravVertical = -1;
+    } else {
+      if (superiorGravity > inferiorGravity) {
+
+        bestVertical = inferiorGravity;
+        gravVertical = 1;
+      }
+    }
+
+    if (leftGravity < rightGravity) {
+
+      bestHorizontal = leftGravity;
+      gravHorizontal = -1;
+    } else {
+      if (leftGravity > rightGravity) {
+
+        bestHorizontal = rightGravity;
+        gravHorizontal = 1;
+      }
+    }
+
+    if (bestVertical != bestHorizontal) {
+
+      if (bestVertical < bestHorizontal) {
+        gravHorizontal = 0;
+      } else {
+        gravVertical = 0;
+      }
+    }
+
+    return (gravHorizontal + 1) * 3 + (gravVertical + 1);
+  }
+}
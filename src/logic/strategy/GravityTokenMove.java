@@ -26,100 +26,165 @@
  */
 package logic.strategy;
 
-import utils.Gravity;
 import exception.InvalidMove;
 import logic.Board;
+import logic.Move;
 import logic.Position;
 import logic.Token;
+import logic.UndoRecord;
 
 public class GravityTokenMove implements TokenMoveStrategy {
 
+  // Table of the last board size seen, so that looking it up does not box
+  // a key nor take the lock of the shared tables on every landing
+  private GravityTable _table;
+
   public Position putToken(Board board, Token token, int column, int row)
       throws InvalidMove {
-    Gravity gravedad = computeGravity(column, row, board.getWidth(),
-        board.getHeight());
-    Position posFinal = computeFinalGravityPosition(gravedad, board, column,
-        row);
+    int move = makeMove(board, token, column, row);
 
-    return setToken(board, token, posFinal.getX(), posFinal.getY());
+    if (move == Move.NONE) {
+      throw new InvalidMove();
+    }
+    return Position.valueOf(Move.getColumn(move), Move.getRow(move));
   }
 
-  private Gravity computeGravity(int column, int row, int columns, int rows) {
-    int superiorGravity = row;
-    int inferiorGravity = (rows - 1) - row;
-    int leftGravity = column;
-    int rightGravity = (columns - 1) - column;
+  public int makeMove(Board board, Token token, int column, int row) {
+    if (token == Token.NONE || !board.isValidCell(column, row)) {
+      return Move.NONE;
+    }
+
+    int landing = computeLanding(board, column, row);
+    return setToken(board, token, Move.getColumn(landing),
+        Move.getRow(landing));
+  }
 
-    int bestVertical = Integer.MAX_VALUE, bestHorizontal = Integer.MAX_VALUE;
-    int gravHorizontal = 0, gravVertical = 0;
+  // The token slides from the clicked slot towards its gravity and stops
+  // before the first token it finds, or against the wall. Every line of the
+  // board keeps a mask of its occupied slots, so the first token on the way
+  // is found with a bit scan instead of walking slot by slot.
+  public int computeLanding(Board board, int column, int row) {
+    return computeLanding(board, getTable(board), column, row);
+  }
 
-    if (superiorGravity < inferiorGravity) {
+  private int computeLanding(Board board, GravityTable table, int column,
+      int row) {
+    int width = board.getWidth();
+    int height = board.getHeight();
+    int gravity = table.getGravity(column, row);
+    int horizontalGravity = GravityTable.getHorizontalGravity(gravity);
+    int verticalGravity = GravityTable.getVerticalGravity(gravity);
+    int steps;
 
-      bestVertical = superiorGravity;
-      gravVertical = -1;
-    } else {
-      if (superiorGravity > inferiorGravity) {
+    if (verticalGravity == 0) {
 
-        bestVertical = inferiorGravity;
-        gravVertical = 1;
+      if (horizontalGravity == 0) {
+        return Move.encode(column, row);
       }
-    }
+      steps = stepsToToken(board.getRowTokens(row), column, horizontalGravity,
+          horizontalGravity < 0 ? column : width - 1 - column);
+
+    } else if (horizontalGravity == 0) {
 
-    if (leftGravity < rightGravity) {
+      steps = stepsToToken(board.getColumnTokens(column), row,
+          verticalGravity, verticalGravity < 0 ? row : height - 1 - row);
 
-      bestHorizontal = leftGravity;
-      gravHorizontal = -1;
     } else {
-      if (leftGravity > rightGravity) {
 
-        bestHorizontal = rightGravity;
-        gravHorizontal = 1;
+      int wall = Math.min(horizontalGravity < 0 ? column : width - 1 - column,
+          verticalGravity < 0 ? row : height - 1 - row);
+
+      if (horizontalGravity == verticalGravity) {
+        steps = stepsToToken(board.getDiagonalTokens(column, row), column,
+            horizontalGravity, wall);
+      } else {
+        steps = stepsToToken(board.getAntiDiagonalTokens(column, row),
+            column, horizontalGravity, wall);
       }
     }
 
-    if (bestVertical != bestHorizontal) {
+    return Move.encode(column + steps * horizontalGravity, row + steps
+        * verticalGravity);
+  }
 
-      if (bestVertical < bestHorizontal) {
-        gravHorizontal = 0;
-      } else {
-        gravVertical = 0;
+  // Free slots between the given index, excluded, and the first token found
+  // in the direction of the step, or the wall when there is none
+  private int stepsToToken(int tokens, int index, int step, int wall) {
+    if (step > 0) {
+      int ahead = tokens & ~((2 << index) - 1);
+
+      if (ahead == 0) {
+        return wall;
       }
+      return Integer.numberOfTrailingZeros(ahead) - index - 1;
     }
 
-    return new Gravity(gravHorizontal, gravVertical);
+    int ahead = tokens & ((1 << index) - 1);
+
+    if (ahead == 0) {
+      return wall;
+    }
+    return index - (31 - Integer.numberOfLeadingZeros(ahead)) - 1;
   }
 
-  private Position computeFinalGravityPosition(Gravity gravity, Board board,
-      int column, int row) {
-    int columnAux = column, rowAux = row;
+  private int setToken(Board board, Token token, int column, int row) {
+    if (board.isValidCell(column, row)
+        && board.getSlot(column, row) == Token.NONE) {
 
-    do {
-      columnAux = columnAux + gravity.getHorizontalGravity();
-      rowAux = rowAux + gravity.getVerticalGravity();
-    } while ((columnAux != column || rowAux != row)
-        && (board.isValidCell(columnAux, rowAux))
-        && (board.getSlot(columnAux, rowAux) == Token.NONE));
+      board.pushUndoRecord(UndoRecord.placed(column, row));
+      board.setCell(column, row, token);
+      board.setTokensInColumn(column, board.getTokensInColumn(column) + 1);
+      board.setTokens(board.getTokens() + 1);
+      board.updateConnections(column, row);
 
-    return new Position(columnAux - gravity.getHorizontalGravity(), rowAux
-        - gravity.getVerticalGravity());
+      return Move.encode(column, row);
+    }
+    return Move.NONE;
   }
 
-  private Position setToken(Board board, Token token, int column, int row)
-      throws InvalidMove {
-    if (token != Token.NONE && board.isValidCell(column, row)) {
-
-      if (board.getSlot(column, row) == Token.NONE) {
+  private GravityTable getTable(Board board) {
+    GravityTable table = _table;
 
-        board.setCell(column, row, token);
-        board.setTokensInColumn(column, board.getTokensInColumn(column) + 1);
-        board.setTokens(board.getTokens() + 1);
+    if (table == null || !table.fits(board.getWidth(), board.getHeight())) {
+      table = GravityTable.getInstance(board.getWidth(), board.getHeight());
+      _table = table;
+    }
+    return table;
+  }
 
-        return new Position(column, row);
-      } else {
-        throw new InvalidMove();
+  // Every slot can be clicked, but many of them slide to the same landing
+  // slot. Only the first click of each landing slot is kept
+  public int legalMoves(Board board, int[] moves) {
+    GravityTable table = getTable(board);
+    int count = 0;
+
+    board.clearMarks();
+    for (int column = 0; column < board.getWidth(); column++) {
+      for (int row = 0; row < board.getHeight(); row++) {
+        int landing = computeLanding(board, table, column, row);
+        int landingColumn = Move.getColumn(landing);
+        int landingRow = Move.getRow(landing);
+
+        if (board.getSlot(landingColumn, landingRow) == Token.NONE
+            && board.mark(landingColumn, landingRow)) {
+          moves[count++] = Move.encode(column, row);
+        }
       }
-    } else {
-      throw new InvalidMove();
     }
+    return count;
+  }
+
+  public int getSymmetries(int width, int height) {
+    // Gravity pulls towards the nearest walls, so both mirror images keep
+    // the rules and so does swapping rows and columns on a square board
+    return width == height ? 8 : 4;
+  }
+
+  public void undoToken(Board board, int record) {
+    int column = UndoRecord.getColumn(record);
+
+    board.setCell(column, UndoRecord.getRow(record), Token.NONE);
+    board.setTokensInColumn(column, board.getTokensInColumn(column) - 1);
+    board.setTokens(board.getTokens() - 1);
   }
 }
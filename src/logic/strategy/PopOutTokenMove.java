@@ -28,34 +28,91 @@ package logic.strategy;
 
 import exception.InvalidMove;
 import logic.Board;
+import logic.Move;
 import logic.Position;
 import logic.Token;
+import logic.UndoRecord;
 
 public class PopOutTokenMove implements TokenMoveStrategy {
 
   public Position putToken(Board board, Token token, int column, int row)
       throws InvalidMove {
+    int move = makeMove(board, token, column, row);
+
+    if (move == Move.NONE) {
+      throw new InvalidMove();
+    }
+    return Position.valueOf(Move.getColumn(move), Move.getRow(move));
+  }
+
+  public int makeMove(Board board, Token token, int column, int row) {
     if (token != Token.NONE && board.isValidColumn(column)) {
 
       if (board.isColumnFull(column)) {
 
+        board.pushUndoRecord(UndoRecord.shifted(column,
+            board.getSlot(column, board.getHeight() - 1)));
         for (int i = board.getHeight() - 1; i >= 1; i--) {
           board.setCell(column, i, board.getSlot(column, i - 1));
         }
         board.setCell(column, 0, token);
-        return new Position(column, 0);
+        board.updateConnectionsInColumn(column);
+        return Move.encode(column, 0);
 
       } else {
 
-        board.setCell(column,
-            (board.getHeight() - 1) - (board.getTokensInColumn(column)), token);
+        int landingRow = (board.getHeight() - 1)
+            - (board.getTokensInColumn(column));
+
+        board.pushUndoRecord(UndoRecord.placed(column, landingRow));
+        board.setCell(column, landingRow, token);
         board.setTokensInColumn(column, board.getTokensInColumn(column) + 1);
         board.setTokens(board.getTokens() + 1);
-        return new Position(column, (board.getHeight() - 1)
-            - (board.getTokensInColumn(column) - 1));
+        board.updateConnections(column, landingRow);
+        return Move.encode(column, landingRow);
       }
+    }
+    return Move.NONE;
+  }
+
+  // A full column is pushed down and the token is left at its top
+  public int computeLanding(Board board, int column, int row) {
+    if (board.isColumnFull(column)) {
+      return Move.encode(column, 0);
+    }
+    return Move.encode(column, (board.getHeight() - 1)
+        - board.getTokensInColumn(column));
+  }
+
+  public int legalMoves(Board board, int[] moves) {
+    // A full column is pushed down, so every column is a move
+    for (int column = 0; column < board.getWidth(); column++) {
+      moves[column] = Move.encode(column, 0);
+    }
+    return board.getWidth();
+  }
+
+  public int getSymmetries(int width, int height) {
+    return 2;
+  }
+
+  public void undoToken(Board board, int record) {
+    int column = UndoRecord.getColumn(record);
+
+    if (UndoRecord.isShift(record)) {
+
+      // Moves the column back up and returns the popped token to the base
+      for (int i = 0; i < board.getHeight() - 1; i++) {
+        board.setCell(column, i, board.getSlot(column, i + 1));
+      }
+      board.setCell(column, board.getHeight() - 1,
+          UndoRecord.getPopped(record));
+
     } else {
-      throw new InvalidMove();
+
+      board.setCell(column, UndoRecord.getRow(record), Token.NONE);
+      board.setTokensInColumn(column, board.getTokensInColumn(column) - 1);
+      board.setTokens(board.getTokens() - 1);
     }
   }
 }
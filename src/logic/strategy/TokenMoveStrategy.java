@@ -35,4 +35,20 @@ public interface TokenMoveStrategy {
 
   public Position putToken(Board board, Token token, int column, int row)
       throws InvalidMove;
+
+  public int makeMove(Board board, Token token, int column, int row);
+
+  // Slot where makeMove would leave the token of a legal move, without
+  // playing it
+  public int computeLanding(Board board, int column, int row);
+
+  public void undoToken(Board board, int record);
+
+  // Fills the array with one move per different outcome, as the slot to be
+  // given to makeMove, and returns how many there are
+  public int legalMoves(Board board, int[] moves);
+
+  // Number of symmetries of the board that preserve the rules, see
+  // Board.canonicalKey
+  public int getSymmetries(int width, int height);
 }
@@ -1,9 +1,15 @@
 package main;
 
+import java.io.File;
+
 import application.GameMode;
 import application.GameType;
 import application.PlayerType;
 import jargs.gnu.CmdLineParser;
+import logic.Token;
+import logic.search.SearchAlgorithm;
+import logic.search.SearchDriver;
+import logic.search.SearchSettings;
 
 public class CommandLineParser {
 
@@ -11,23 +17,59 @@ public class CommandLineParser {
   private static final String GAME_OPTION_STRING = "game";
   private static final String WIDTH_OPTION_STRING = "width";
   private static final String HEIGHT_OPTION_STRING = "height";
+  private static final String CONNECT_OPTION_STRING = "connect";
   private static final String YELLOW_OPTION_STRING = "yellow";
   private static final String RED_OPTION_STRING = "red";
+  private static final String HASH_OPTION_STRING = "hash";
+  private static final String YELLOW_TIME_OPTION_STRING = "yellow-time";
+  private static final String RED_TIME_OPTION_STRING = "red-time";
+  private static final String THREADS_OPTION_STRING = "threads";
+  private static final String ALGORITHM_OPTION_STRING = "algorithm";
+  private static final String PLAYOUTS_OPTION_STRING = "playouts";
+  private static final String BOOK_OPTION_STRING = "book";
+  private static final String TABLE_OPTION_STRING = "table";
+  private static final String YELLOW_DRIVER_OPTION_STRING = "yellow-driver";
+  private static final String RED_DRIVER_OPTION_STRING = "red-driver";
+  private static final String SEED_OPTION_STRING = "seed";
 
   private static final char INTERFACE_OPTION_CHAR = 'i';
   private static final char GAME_OPTION_CHAR = 'g';
   private static final char WIDTH_OPTION_CHAR = 'w';
   private static final char HEIGHT_OPTION_CHAR = 'h';
+  private static final char CONNECT_OPTION_CHAR = 'n';
   private static final char YELLOW_OPTION_CHAR = 'y';
   private static final char RED_OPTION_CHAR = 'r';
+  private static final char HASH_OPTION_CHAR = 'm';
+  private static final char YELLOW_TIME_OPTION_CHAR = 'Y';
+  private static final char RED_TIME_OPTION_CHAR = 'R';
+  private static final char THREADS_OPTION_CHAR = 'j';
+  private static final char ALGORITHM_OPTION_CHAR = 'a';
+  private static final char PLAYOUTS_OPTION_CHAR = 'p';
+  private static final char BOOK_OPTION_CHAR = 'b';
+  private static final char TABLE_OPTION_CHAR = 't';
+  private static final char YELLOW_DRIVER_OPTION_CHAR = 'd';
+  private static final char RED_DRIVER_OPTION_CHAR = 'D';
+  private static final char SEED_OPTION_CHAR = 's';
 
   private static final String HUMAN = "human";
   private static final String COMPUTER = "computer";
+  private static final String EASY = "easy";
+  private static final String MEDIUM = "medium";
+  private static final String HARD = "hard";
+  private static final String PERFECT = "perfect";
   private static final String CONSOLE = "console";
   private static final String GUI = "gui";
   private static final String CONNECT4 = "connect4";
   private static final String POP_OUT = "popout";
   private static final String GRAVITY = "gravity";
+  private static final String CONNECT_N = "connectn";
+  private static final String LAZY_SMP = "lazysmp";
+  private static final String YOUNG_BROTHERS = "ybwc";
+  private static final String MONTE_CARLO = "mcts";
+  private static final String SHARED_TREE = "mctstree";
+  private static final String ALPHA_BETA = "alphabeta";
+  private static final String PRINCIPAL_VARIATION = "pvs";
+  private static final String MTDF = "mtdf";
 
   CmdLineParser _cmdLineParser = new CmdLineParser();
   GameMode _gameMode = GameMode.GUI;
@@ -36,6 +78,9 @@ public class CommandLineParser {
   PlayerType _yellowPlayer = PlayerType.HUMAN;
   int _width = 10;
   int _height = 10;
+  int _connectLength = 4;
+  SearchSettings _redSettings = new SearchSettings();
+  SearchSettings _yellowSettings = new SearchSettings();
   boolean _validParameters = true;
 
   public CommandLineParser(String[] args) {
@@ -48,10 +93,34 @@ public class CommandLineParser {
         WIDTH_OPTION_CHAR, WIDTH_OPTION_STRING);
     CmdLineParser.Option heightOption = _cmdLineParser.addIntegerOption(
         HEIGHT_OPTION_CHAR, HEIGHT_OPTION_STRING);
+    CmdLineParser.Option connectOption = _cmdLineParser.addIntegerOption(
+        CONNECT_OPTION_CHAR, CONNECT_OPTION_STRING);
     CmdLineParser.Option yellowPlayerOption = _cmdLineParser.addStringOption(
         YELLOW_OPTION_CHAR, YELLOW_OPTION_STRING);
     CmdLineParser.Option redPlayerOption = _cmdLineParser.addStringOption(
         RED_OPTION_CHAR, RED_OPTION_STRING);
+    CmdLineParser.Option hashOption = _cmdLineParser.addIntegerOption(
+        HASH_OPTION_CHAR, HASH_OPTION_STRING);
+    CmdLineParser.Option yellowTimeOption = _cmdLineParser.addIntegerOption(
+        YELLOW_TIME_OPTION_CHAR, YELLOW_TIME_OPTION_STRING);
+    CmdLineParser.Option redTimeOption = _cmdLineParser.addIntegerOption(
+        RED_TIME_OPTION_CHAR, RED_TIME_OPTION_STRING);
+    CmdLineParser.Option threadsOption = _cmdLineParser.addIntegerOption(
+        THREADS_OPTION_CHAR, THREADS_OPTION_STRING);
+    CmdLineParser.Option algorithmOption = _cmdLineParser.addStringOption(
+        ALGORITHM_OPTION_CHAR, ALGORITHM_OPTION_STRING);
+    CmdLineParser.Option playoutsOption = _cmdLineParser.addIntegerOption(
+        PLAYOUTS_OPTION_CHAR, PLAYOUTS_OPTION_STRING);
+    CmdLineParser.Option bookOption = _cmdLineParser.addStringOption(
+        BOOK_OPTION_CHAR, BOOK_OPTION_STRING);
+    CmdLineParser.Option tableOption = _cmdLineParser.addStringOption(
+        TABLE_OPTION_CHAR, TABLE_OPTION_STRING);
+    CmdLineParser.Option yellowDriverOption = _cmdLineParser.addStringOption(
+        YELLOW_DRIVER_OPTION_CHAR, YELLOW_DRIVER_OPTION_STRING);
+    CmdLineParser.Option redDriverOption = _cmdLineParser.addStringOption(
+        RED_DRIVER_OPTION_CHAR, RED_DRIVER_OPTION_STRING);
+    CmdLineParser.Option seedOption = _cmdLineParser.addLongOption(
+        SEED_OPTION_CHAR, SEED_OPTION_STRING);
 
     try {
 
@@ -79,6 +148,8 @@ public class CommandLineParser {
           _gameType = GameType.POP_OUT;
         } else if (gameType.equals(GRAVITY)) {
           _gameType = GameType.GRAVITY;
+        } else if (gameType.equals(CONNECT_N)) {
+          _gameType = GameType.CONNECT_N;
         } else {
           showUseMode("Invalid game type: " + gameType);
           _validParameters = false;
@@ -89,11 +160,8 @@ public class CommandLineParser {
           .getOptionValue(yellowPlayerOption);
       if (yellowPlayer != null) {
 
-        if (yellowPlayer.equals(HUMAN)) {
-          _yellowPlayer = PlayerType.HUMAN;
-        } else if (yellowPlayer.equals(COMPUTER)) {
-          _yellowPlayer = PlayerType.COMPUTER;
-        } else {
+        _yellowPlayer = parsePlayer(yellowPlayer);
+        if (_yellowPlayer == null) {
           showUseMode("Invalid yellow player: " + yellowPlayer);
           _validParameters = false;
         }
@@ -103,23 +171,163 @@ public class CommandLineParser {
           .getOptionValue(redPlayerOption);
       if (redPlayer != null) {
 
-        if (redPlayer.equals(HUMAN)) {
-          _redPlayer = PlayerType.HUMAN;
-        } else if (redPlayer.equals(COMPUTER)) {
-          _redPlayer = PlayerType.COMPUTER;
-        } else {
+        _redPlayer = parsePlayer(redPlayer);
+        if (_redPlayer == null) {
           showUseMode("Invalid red player: " + redPlayer);
           _validParameters = false;
         }
       }
 
+      if ((_yellowPlayer == PlayerType.PERFECT
+          || _redPlayer == PlayerType.PERFECT)
+          && _gameType != GameType.CONNECT4) {
+        showUseMode("Perfect players only play connect4");
+        _validParameters = false;
+      }
+
+      Integer hash = (Integer) _cmdLineParser.getOptionValue(hashOption);
+      if (hash != null) {
+
+        if (isHashSizeValid(hash)) {
+          _yellowSettings.setHashSize(hash);
+          _redSettings.setHashSize(hash);
+        } else {
+          showUseMode("Hash size out of range: " + hash.toString());
+          _validParameters = false;
+        }
+      }
+
+      Integer threads = (Integer) _cmdLineParser.getOptionValue(threadsOption);
+      if (threads != null) {
+
+        if (isThreadsValid(threads)) {
+          _yellowSettings.setThreads(threads);
+          _redSettings.setThreads(threads);
+        } else {
+          showUseMode("Threads out of range: " + threads.toString());
+          _validParameters = false;
+        }
+      }
+
+      String algorithm = (String) _cmdLineParser
+          .getOptionValue(algorithmOption);
+      if (algorithm != null) {
+
+        if (algorithm.equals(LAZY_SMP)) {
+          setAlgorithm(SearchAlgorithm.LAZY_SMP);
+        } else if (algorithm.equals(YOUNG_BROTHERS)) {
+          setAlgorithm(SearchAlgorithm.YOUNG_BROTHERS);
+        } else if (algorithm.equals(MONTE_CARLO)) {
+          setAlgorithm(SearchAlgorithm.MONTE_CARLO);
+        } else if (algorithm.equals(SHARED_TREE)) {
+          setAlgorithm(SearchAlgorithm.SHARED_TREE);
+        } else {
+          showUseMode("Invalid search algorithm: " + algorithm);
+          _validParameters = false;
+        }
+      }
+
+      Integer playouts = (Integer) _cmdLineParser
+          .getOptionValue(playoutsOption);
+      if (playouts != null) {
+
+        if (isPlayoutsValid(playouts)) {
+          _yellowSettings.setPlayouts(playouts);
+          _redSettings.setPlayouts(playouts);
+        } else {
+          showUseMode("Playouts out of range: " + playouts.toString());
+          _validParameters = false;
+        }
+      }
+
+      String book = (String) _cmdLineParser.getOptionValue(bookOption);
+      if (book != null) {
+
+        if (new File(book).canRead()) {
+          _yellowSettings.setBook(book);
+          _redSettings.setBook(book);
+        } else {
+          showUseMode("Opening book not found: " + book);
+          _validParameters = false;
+        }
+      }
+
+      String table = (String) _cmdLineParser.getOptionValue(tableOption);
+      if (table != null) {
+
+        if (new File(table).canRead()) {
+          _yellowSettings.setTable(table);
+          _redSettings.setTable(table);
+        } else {
+          showUseMode("PopOut table not found: " + table);
+          _validParameters = false;
+        }
+      }
+
+      Integer yellowTime = (Integer) _cmdLineParser
+          .getOptionValue(yellowTimeOption);
+      if (yellowTime != null) {
+
+        if (isTimeBudgetValid(yellowTime)) {
+          _yellowSettings.setTimeBudget(yellowTime);
+        } else {
+          showUseMode("Yellow time out of range: " + yellowTime.toString());
+          _validParameters = false;
+        }
+      }
+
+      Integer redTime = (Integer) _cmdLineParser.getOptionValue(redTimeOption);
+      if (redTime != null) {
+
+        if (isTimeBudgetValid(redTime)) {
+          _redSettings.setTimeBudget(redTime);
+        } else {
+          showUseMode("Red time out of range: " + redTime.toString());
+          _validParameters = false;
+        }
+      }
+
+      String yellowDriver = (String) _cmdLineParser
+          .getOptionValue(yellowDriverOption);
+      if (yellowDriver != null) {
+
+        SearchDriver driver = parseDriver(yellowDriver);
+        if (driver != null) {
+          _yellowSettings.setDriver(driver);
+        } else {
+          showUseMode("Invalid yellow search driver: " + yellowDriver);
+          _validParameters = false;
+        }
+      }
+
+      String redDriver = (String) _cmdLineParser
+          .getOptionValue(redDriverOption);
+      if (redDriver != null) {
+
+        SearchDriver driver = parseDriver(redDriver);
+        if (driver != null) {
+          _redSettings.setDriver(driver);
+        } else {
+          showUseMode("Invalid red search driver: " + redDriver);
+          _validParameters = false;
+        }
+      }
+
+      Long seed = (Long) _cmdLineParser.getOptionValue(seedOption);
+      if (seed != null) {
+        _yellowSettings.setSeed(seed);
+        _redSettings.setSeed(seed);
+      }
+
       Integer width = (Integer) _cmdLineParser.getOptionValue(widthOption);
       Integer height = (Integer) _cmdLineParser.getOptionValue(heightOption);
+      Integer connect = (Integer) _cmdLineParser.getOptionValue(connectOption);
 
       if (_validParameters) {
 
-        // In gravity mode, the number of columns and rows are checked
-        if (_gameType == GameType.GRAVITY) {
+        // In gravity and connect-n modes, the number of columns and rows are
+        // checked
+        if (_gameType == GameType.GRAVITY || _gameType == GameType.CONNECT_N) {
 
           if (width != null) {
             if (isWidthValid(width)) {
@@ -129,7 +337,7 @@ public class CommandLineParser {
               _validParameters = false;
             }
           } else {
-            showUseMode("Mandatory Gravity width missing");
+            showUseMode("Mandatory " + _gameType + " width missing");
           }
 
           if (height != null) {
@@ -140,7 +348,16 @@ public class CommandLineParser {
               _validParameters = false;
             }
           } else {
-            showUseMode("Mandatory Gravity height missing");
+            showUseMode("Mandatory " + _gameType + " height missing");
+          }
+
+          if (connect != null) {
+            if (isConnectLengthValid(connect)) {
+              _connectLength = connect;
+            } else {
+              showUseMode("Connect length out of range: " + connect.toString());
+              _validParameters = false;
+            }
           }
         } else {
           if (_gameType == GameType.CONNECT4 || _gameType == GameType.POP_OUT) {
@@ -148,6 +365,10 @@ public class CommandLineParser {
               showUseMode("With connect4 or complicate you cannot enter neither the number of columns nor the number of rows.");
               _validParameters = false;
             }
+            if (connect != null) {
+              showUseMode("With connect4 or complicate you cannot change the number of tokens to connect.");
+              _validParameters = false;
+            }
           }
         }
       }
@@ -198,6 +419,14 @@ public class CommandLineParser {
     return _height;
   }
 
+  public int getConnectLength() {
+    return _connectLength;
+  }
+
+  public SearchSettings getSearchSettings(Token color) {
+    return color == Token.RED ? _redSettings : _yellowSettings;
+  }
+
   private boolean isHeightValid(Integer height) {
     return (height >= 5 && height <= 15);
   }
@@ -206,6 +435,66 @@ public class CommandLineParser {
     return (width >= 5 && width <= 15);
   }
 
+  private boolean isConnectLengthValid(Integer connect) {
+    return (connect >= 3 && connect <= 8);
+  }
+
+  private boolean isHashSizeValid(Integer hash) {
+    return (hash >= 1 && hash <= 4096);
+  }
+
+  private void setAlgorithm(SearchAlgorithm algorithm) {
+    _yellowSettings.setAlgorithm(algorithm);
+    _redSettings.setAlgorithm(algorithm);
+  }
+
+  private static PlayerType parsePlayer(String player) {
+    if (player.equals(HUMAN)) {
+      return PlayerType.HUMAN;
+    }
+    if (player.equals(COMPUTER)) {
+      return PlayerType.COMPUTER;
+    }
+    if (player.equals(EASY)) {
+      return PlayerType.EASY;
+    }
+    if (player.equals(MEDIUM)) {
+      return PlayerType.MEDIUM;
+    }
+    if (player.equals(HARD)) {
+      return PlayerType.HARD;
+    }
+    if (player.equals(PERFECT)) {
+      return PlayerType.PERFECT;
+    }
+    return null;
+  }
+
+  private static SearchDriver parseDriver(String driver) {
+    if (driver.equals(ALPHA_BETA)) {
+      return SearchDriver.ALPHA_BETA;
+    }
+    if (driver.equals(PRINCIPAL_VARIATION)) {
+      return SearchDriver.PRINCIPAL_VARIATION;
+    }
+    if (driver.equals(MTDF)) {
+      return SearchDriver.MTDF;
+    }
+    return null;
+  }
+
+  private boolean isThreadsValid(Integer threads) {
+    return (threads >= 1 && threads <= 256);
+  }
+
+  private boolean isPlayoutsValid(Integer playouts) {
+    return (playouts >= 1 && playouts <= 100000000);
+  }
+
+  private boolean isTimeBudgetValid(Integer time) {
+    return (time >= 10 && time <= 600000);
+  }
+
   private static void showUseMode(String message) {
     if (!message.matches("")) {
       System.err.println(message);
@@ -232,6 +521,8 @@ public class CommandLineParser {
             + POP_OUT
             + "/"
             + GRAVITY
+            + "/"
+            + CONNECT_N
             + "> "
             + "[-"
             + RED_OPTION_CHAR
@@ -241,6 +532,14 @@ public class CommandLineParser {
             + HUMAN
             + "/"
             + COMPUTER
+            + "/"
+            + EASY
+            + "/"
+            + MEDIUM
+            + "/"
+            + HARD
+            + "/"
+            + PERFECT
             + "> [-"
             + YELLOW_OPTION_CHAR
             + "/--"
@@ -249,8 +548,24 @@ public class CommandLineParser {
             + HUMAN
             + "/"
             + COMPUTER
+            + "/"
+            + EASY
+            + "/"
+            + MEDIUM
+            + "/"
+            + HARD
+            + "/"
+            + PERFECT
             + ">\n"
-            + "    -> With Gravity mode you can choose the number of columns and rows:\n "
+            + "    -> Easy, medium and hard computer players search 1000, 100000 and 10000000 nodes for every move instead of thinking for a time,\n"
+            + "       playing the same moves on any machine. Perfect players only play connect4, solving its positions and searching the ones too far from the end.\n"
+            + "    -> The seed of the random games of levels:\n"
+            + "		[-"
+            + SEED_OPTION_CHAR
+            + "/--"
+            + SEED_OPTION_STRING
+            + "] <number>\n"
+            + "    -> With Gravity or Connect-N modes you can choose the number of columns and rows:\n "
             + "		[-"
             + WIDTH_OPTION_CHAR
             + "/--"
@@ -268,7 +583,89 @@ public class CommandLineParser {
             + WIDTH_OPTION_CHAR
             + "/--"
             + WIDTH_OPTION_STRING
-            + "] <5-15>\n\n"
+            + "] <5-15>\n"
+            + "    -> and the number of tokens to connect:\n"
+            + "		[-"
+            + CONNECT_OPTION_CHAR
+            + "/--"
+            + CONNECT_OPTION_STRING
+            + "] <3-8>\n"
+            + "    -> Megabytes of memory for every computer player's cache of positions:\n"
+            + "		[-"
+            + HASH_OPTION_CHAR
+            + "/--"
+            + HASH_OPTION_STRING
+            + "] <1-4096>\n"
+            + "    -> Milliseconds every computer player thinks about a move:\n"
+            + "		[-"
+            + YELLOW_TIME_OPTION_CHAR
+            + "/--"
+            + YELLOW_TIME_OPTION_STRING
+            + "] <10-600000> [-"
+            + RED_TIME_OPTION_CHAR
+            + "/--"
+            + RED_TIME_OPTION_STRING
+            + "] <10-600000>\n"
+            + "    -> Threads every computer player searches with:\n"
+            + "		[-"
+            + THREADS_OPTION_CHAR
+            + "/--"
+            + THREADS_OPTION_STRING
+            + "] <1-256>\n"
+            + "    -> and the way those threads share the search:\n"
+            + "		[-"
+            + ALGORITHM_OPTION_CHAR
+            + "/--"
+            + ALGORITHM_OPTION_STRING
+            + "] <"
+            + LAZY_SMP
+            + "/"
+            + YOUNG_BROTHERS
+            + "/"
+            + MONTE_CARLO
+            + "/"
+            + SHARED_TREE
+            + ">\n"
+            + "    -> How the alpha-beta search of every computer player goes through each depth:\n"
+            + "		[-"
+            + YELLOW_DRIVER_OPTION_CHAR
+            + "/--"
+            + YELLOW_DRIVER_OPTION_STRING
+            + "] <"
+            + ALPHA_BETA
+            + "/"
+            + PRINCIPAL_VARIATION
+            + "/"
+            + MTDF
+            + "> [-"
+            + RED_DRIVER_OPTION_CHAR
+            + "/--"
+            + RED_DRIVER_OPTION_STRING
+            + "] <"
+            + ALPHA_BETA
+            + "/"
+            + PRINCIPAL_VARIATION
+            + "/"
+            + MTDF
+            + ">\n"
+            + "    -> Most random games of a Monte Carlo search for a move:\n"
+            + "		[-"
+            + PLAYOUTS_OPTION_CHAR
+            + "/--"
+            + PLAYOUTS_OPTION_STRING
+            + "] <1-100000000>\n"
+            + "    -> Opening book of connect4 computer players:\n"
+            + "		[-"
+            + BOOK_OPTION_CHAR
+            + "/--"
+            + BOOK_OPTION_STRING
+            + "] <file>\n"
+            + "    -> Table of solved positions of popout computer players:\n"
+            + "		[-"
+            + TABLE_OPTION_CHAR
+            + "/--"
+            + TABLE_OPTION_STRING
+            + "] <file>\n\n"
             + "NOTE: order of the parameters is irrelevant");
   }
 }
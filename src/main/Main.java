@@ -32,6 +32,7 @@ import javax.swing.UIManager.LookAndFeelInfo;
 import javax.swing.UnsupportedLookAndFeelException;
 import gui.swing.ConfigureGameWindow;
 import gui.swing.SplashScreen;
+import logic.Token;
 
 public class Main {
 
@@ -50,15 +51,24 @@ public class Main {
 
   public static void runConsole() {
     Application app = new Application();
+    app.setSearchSettings(Token.RED,
+        _commandLineParser.getSearchSettings(Token.RED));
+    app.setSearchSettings(Token.YELLOW,
+        _commandLineParser.getSearchSettings(Token.YELLOW));
     if (app.init(_commandLineParser.getGameType(),
         _commandLineParser.getGameMode(), _commandLineParser.getRedPlayer(),
         _commandLineParser.getYellowPlayer(), _commandLineParser.getWidth(),
-        _commandLineParser.getHeight())) {
+        _commandLineParser.getHeight(),
+        _commandLineParser.getConnectLength())) {
       app.run();
     }
   }
 
   public static void runGUI() {
+    ConfigureGameWindow.setSearchSettings(Token.RED,
+        _commandLineParser.getSearchSettings(Token.RED));
+    ConfigureGameWindow.setSearchSettings(Token.YELLOW,
+        _commandLineParser.getSearchSettings(Token.YELLOW));
     setLookAndFeel();
 
     SplashScreen splash = new SplashScreen(5000);
@@ -58,10 +58,10 @@ public class BoardUtils {
     Board board = null;
 
     if (strategy instanceof PopOutTokenMove) {
-      board = new Board(4, 7, strategy);
+      board = new BitBoard(4, 7, strategy);
     } else {
       if (strategy instanceof ConnectFourTokenMove) {
-        board = new Board(7, 6, strategy);
+        board = new BitBoard(7, 6, strategy);
       } else {
         if (strategy instanceof GravityTokenMove) {
           board = new Board(columns, rows, strategy);
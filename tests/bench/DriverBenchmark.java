@@ -0,0 +1,115 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bench;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Token;
+import logic.search.AlphaBetaSearch;
+import logic.search.SearchDriver;
+import logic.search.TranspositionTable;
+import logic.strategy.ConnectFourTokenMove;
+import logic.strategy.PopOutTokenMove;
+import logic.strategy.TokenMoveStrategy;
+
+// Nodes searched by every root driver to reach a depth on fixed suites of
+// Connect Four and PopOut positions, and the scores they found. The
+// searches are set up as the ones of the computer players:
+//
+//   java -cp bin:lib/junit-4.4.jar bench.DriverBenchmark [depth]
+public class DriverBenchmark {
+
+  private static final int HASH_SIZE = 64;
+
+  // Columns played from the empty board, from 1 to the width
+  private static final String[] CONNECT_FOUR = { "", "4", "44", "4453",
+      "444443", "2252576", "43443525", "7422341", "4444333" };
+  private static final String[] POP_OUT = { "", "2", "23", "2323", "1234",
+      "22331", "1111", "23322332", "4123412" };
+
+  public static void main(String[] args) {
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+
+    System.out.println("Connect Four");
+    run(CONNECT_FOUR, 7, 6, new ConnectFourTokenMove(), depth);
+    System.out.println("PopOut");
+    run(POP_OUT, 4, 7, new PopOutTokenMove(), depth + 2);
+  }
+
+  private static void run(String[] positions, int width, int height,
+      TokenMoveStrategy strategy, int depth) {
+    SearchDriver[] drivers = SearchDriver.values();
+    long[] totals = new long[drivers.length];
+
+    System.out.printf("%-10s", "position");
+    for (SearchDriver driver : drivers) {
+      System.out.printf(" %19s", driver);
+    }
+    System.out.println();
+
+    for (String position : positions) {
+      System.out.printf("%-10s", position.length() == 0 ? "-" : position);
+
+      for (int i = 0; i < drivers.length; i++) {
+        AlphaBetaSearch search = new AlphaBetaSearch(new BitBoard(width,
+            height, strategy));
+        Token color = play(search.getBoard(), position);
+
+        search.setTranspositionTable(new TranspositionTable(HASH_SIZE));
+        search.setKillerMoves(false);
+        search.setDriver(drivers[i]);
+        search.searchFor(color, Long.MAX_VALUE, 1, depth);
+        totals[i] += search.getNodes();
+        System.out.printf(" %11d %7d", search.getNodes(), search.getScore());
+      }
+      System.out.println();
+    }
+
+    System.out.printf("%-10s", "total");
+    for (long total : totals) {
+      System.out.printf(" %11d %7s", total, "");
+    }
+    System.out.println();
+
+    System.out.printf("%-10s", "ratio");
+    for (long total : totals) {
+      System.out.printf(" %11.3f %7s", (double) total / totals[0], "");
+    }
+    System.out.println();
+  }
+
+  // Returns the color to move
+  private static Token play(Board board, String position) {
+    Token color = Token.YELLOW;
+
+    for (char column : position.toCharArray()) {
+      board.makeMove(color, column - '1', 0);
+      color = color.getOpposite();
+    }
+    return color;
+  }
+}
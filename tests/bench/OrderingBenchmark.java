@@ -0,0 +1,117 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bench;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Token;
+import logic.search.AlphaBetaSearch;
+import logic.search.TranspositionTable;
+import logic.strategy.ConnectFourTokenMove;
+
+// Nodes searched to reach a depth on a fixed suite of Connect Four
+// positions, with the moves ordered by their distance to the center only
+// and with the killer and history heuristics on top of it. The search
+// without a transposition table goes two plies less deep:
+//
+//   java -cp bin:lib/junit-4.4.jar bench.OrderingBenchmark [depth]
+public class OrderingBenchmark {
+
+  private static final int HASH_SIZE = 64;
+
+  // Columns played from the empty board, from 1 to 7
+  private static final String[] POSITIONS = { "", "4", "44", "4453",
+      "3344", "444443", "2252576", "4455326", "43443525", "7422341",
+      "112233", "4444333" };
+
+  private static final String[] VARIANTS = { "center", "killers",
+      "history", "both" };
+
+  public static void main(String[] args) {
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+
+    System.out.println("With a transposition table");
+    run(depth, true);
+    System.out.println("Without a transposition table");
+    run(depth - 2, false);
+  }
+
+  private static void run(int depth, boolean table) {
+    long[] totals = new long[VARIANTS.length];
+
+    System.out.printf("%-10s", "position");
+    for (String variant : VARIANTS) {
+      System.out.printf(" %11s", variant);
+    }
+    System.out.println();
+
+    for (String position : POSITIONS) {
+      System.out.printf("%-10s", position.length() == 0 ? "-" : position);
+
+      for (int variant = 0; variant < VARIANTS.length; variant++) {
+        long nodes = search(position, depth, variant, table);
+
+        totals[variant] += nodes;
+        System.out.printf(" %11d", nodes);
+      }
+      System.out.println();
+    }
+
+    System.out.printf("%-10s", "total");
+    for (long total : totals) {
+      System.out.printf(" %11d", total);
+    }
+    System.out.println();
+
+    System.out.printf("%-10s", "ratio");
+    for (long total : totals) {
+      System.out.printf(" %11.3f", (double) total / totals[0]);
+    }
+    System.out.println();
+  }
+
+  // Iterative deepening from scratch, as a move is searched in a game
+  private static long search(String position, int depth, int variant,
+      boolean table) {
+    Board board = new BitBoard(7, 6, new ConnectFourTokenMove());
+    Token color = Token.YELLOW;
+
+    for (char column : position.toCharArray()) {
+      board.makeMove(color, column - '1', 0);
+      color = color.getOpposite();
+    }
+
+    AlphaBetaSearch search = new AlphaBetaSearch(board);
+    if (table) {
+      search.setTranspositionTable(new TranspositionTable(HASH_SIZE));
+    }
+    search.setKillerMoves(variant == 1 || variant == 3);
+    search.setHistoryMoves(variant == 2 || variant == 3);
+    search.searchFor(color, Long.MAX_VALUE, 1, depth);
+    return search.getNodes();
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bench;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Token;
+import logic.search.AlphaBetaSearch;
+import logic.search.LazySmpSearch;
+import logic.search.SearchEngine;
+import logic.search.TranspositionTable;
+import logic.search.YoungBrothersSearch;
+import logic.strategy.ConnectFourTokenMove;
+
+// Nodes per second and time to reach a depth from the empty Connect Four
+// board, for every number of threads from 1 to the given one and both
+// parallel searches:
+//
+//   java -cp bin:lib/junit-4.4.jar bench.SearchBenchmark [threads] [depth]
+public class SearchBenchmark {
+
+  private static final int HASH_SIZE = 64;
+
+  public static void main(String[] args) {
+    int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime
+        .getRuntime().availableProcessors();
+    int depth = args.length > 1 ? Integer.parseInt(args[1]) : 14;
+
+    System.out.println("Lazy SMP");
+    System.out.println("threads       nodes     ms    nodes/s  depth  speedup");
+
+    long singleTime = 0;
+
+    for (int n = 1; n <= threads; n++) {
+      LazySmpSearch search = createSearch(n);
+      long start = System.nanoTime();
+
+      search.searchFor(Token.YELLOW, Long.MAX_VALUE, depth);
+      singleTime = report(search, n, start, singleTime);
+    }
+
+    // Without a transposition table this search is much slower, so it goes
+    // a few plies less deep
+    System.out.println("Young Brothers Wait");
+    System.out.println("threads       nodes     ms    nodes/s  depth  speedup");
+
+    for (int n = 1; n <= threads; n++) {
+      YoungBrothersSearch search = new YoungBrothersSearch(createBoard(), n);
+      long start = System.nanoTime();
+
+      search.search(Token.YELLOW, depth - 4);
+      singleTime = report(search, n, start, singleTime);
+    }
+  }
+
+  // Returns the time of the single thread search
+  private static long report(SearchEngine search, int threads, long start,
+      long singleTime) {
+    long time = Math.max(1, (System.nanoTime() - start) / 1000000);
+
+    if (threads == 1) {
+      singleTime = time;
+    }
+    System.out.printf("%7d %11d %6d %10d %6d %8.2f%n", threads,
+        search.getNodes(), time, search.getNodes() * 1000 / time,
+        search.getDepth(), (double) singleTime / time);
+    search.shutdown();
+    return singleTime;
+  }
+
+  private static LazySmpSearch createSearch(int threads) {
+    TranspositionTable table = new TranspositionTable(HASH_SIZE);
+    AlphaBetaSearch[] helpers = new AlphaBetaSearch[threads - 1];
+
+    for (int i = 0; i < helpers.length; i++) {
+      helpers[i] = new AlphaBetaSearch(createBoard());
+      helpers[i].setTranspositionTable(table);
+    }
+
+    AlphaBetaSearch main = new AlphaBetaSearch(createBoard());
+    main.setTranspositionTable(table);
+    return new LazySmpSearch(main, helpers);
+  }
+
+  private static Board createBoard() {
+    return new BitBoard(7, 6, new ConnectFourTokenMove());
+  }
+}
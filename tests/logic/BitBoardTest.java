@@ -0,0 +1,155 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic;
+
+import java.util.Random;
+
+import exception.InvalidMove;
+import junit.framework.TestCase;
+import logic.BitBoard;
+import logic.Board;
+import logic.Position;
+import logic.Token;
+import logic.strategy.ConnectFourTokenMove;
+import logic.strategy.PopOutTokenMove;
+import logic.strategy.TokenMoveStrategy;
+
+public class BitBoardTest extends TestCase {
+
+  public void testGetSlot() {
+    Board board = new BitBoard(7, 6, new ConnectFourTokenMove());
+    assertEquals("Fails when the board is empty", board.getSlot(0, 5),
+        Token.NONE);
+    assertEquals("Fails upon invalid row", board.getSlot(0, 8), Token.NONE);
+
+    try {
+
+      board.putToken(Token.YELLOW, 0, 0);
+      board.putToken(Token.RED, 0, 0);
+      assertEquals("Fails upon YELLOW token", board.getSlot(0, 5),
+          Token.YELLOW);
+      assertEquals("Fails upon RED token", board.getSlot(0, 4), Token.RED);
+      assertEquals("Fails upon empty slot", board.getSlot(1, 5), Token.NONE);
+
+    } catch (InvalidMove e) {
+
+      fail("Fails upon invalid move");
+    }
+  }
+
+  public void testIsColumnFull() {
+    Board board = new BitBoard(7, 6, new ConnectFourTokenMove());
+
+    try {
+
+      for (int i = 0; i < 6; i++) {
+        assertFalse("Fails upon not full column", board.isColumnFull(3));
+        board.putToken(i % 2 == 0 ? Token.YELLOW : Token.RED, 3, 0);
+      }
+      assertTrue("Fails upon full column", board.isColumnFull(3));
+      assertFalse("Fails upon invalid column", board.isColumnFull(7));
+
+    } catch (InvalidMove e) {
+
+      fail("Fails upon invalid move");
+    }
+  }
+
+  public void testTooLargeBoard() {
+    try {
+
+      new BitBoard(15, 15, new ConnectFourTokenMove());
+      fail("Accepts a board that does not fit in a bitboard");
+
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+  public void testSameAsBoardInConnectFour() {
+    compareRandomGames(7, 6, 4, new ConnectFourTokenMove());
+  }
+
+  public void testSameAsBoardInPopOut() {
+    compareRandomGames(4, 7, 4, new PopOutTokenMove());
+  }
+
+  public void testSameAsBoardInConnectN() {
+    compareRandomGames(8, 7, 3, new ConnectFourTokenMove());
+    compareRandomGames(8, 7, 5, new ConnectFourTokenMove());
+    compareRandomGames(4, 15, 8, new ConnectFourTokenMove());
+  }
+
+  private void compareRandomGames(int width, int height, int connectLength,
+      TokenMoveStrategy strategy) {
+    Random random = new Random(7);
+
+    for (int game = 0; game < 200; game++) {
+      Board board = new Board(width, height, connectLength, strategy);
+      Board bitBoard = new BitBoard(width, height, connectLength, strategy);
+      Token turn = Token.YELLOW;
+
+      for (int move = 0; move < width * height; move++) {
+        int column = random.nextInt(width);
+
+        try {
+
+          board.putToken(turn, column, 0);
+          Position position = bitBoard.putToken(turn, column, 0);
+
+          assertEquals("Fails upon line through the last token",
+              board.fourTokensConnected(turn, position.getX(), position.getY()),
+              bitBoard.fourTokensConnected(turn, position.getX(),
+                  position.getY()));
+
+        } catch (InvalidMove e) {
+          continue;
+        }
+
+        assertEquals("Fails upon different grids", board, bitBoard);
+        for (int c = 0; c < width; c++) {
+          assertEquals("Fails upon full column", board.isColumnFull(c),
+              bitBoard.isColumnFull(c));
+        }
+        for (Token color : new Token[] { Token.YELLOW, Token.RED }) {
+          assertEquals("Fails upon horizontal line",
+              board.fourTokensConnectedHorizontally(color),
+              bitBoard.fourTokensConnectedHorizontally(color));
+          assertEquals("Fails upon vertical line",
+              board.fourTokensConnectedVertically(color),
+              bitBoard.fourTokensConnectedVertically(color));
+          assertEquals("Fails upon right diagonal",
+              board.connectedRightDiagonally(color),
+              bitBoard.connectedRightDiagonally(color));
+          assertEquals("Fails upon left diagonal",
+              board.connectedLeftDiagonally(color),
+              bitBoard.connectedLeftDiagonally(color));
+        }
+        turn = turn.getOpposite();
+      }
+    }
+  }
+}
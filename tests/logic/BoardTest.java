@@ -26,6 +26,8 @@
  */
 package logic;
 
+import java.util.Random;
+
 import utils.BoardUtils;
 import exception.InvalidMove;
 import junit.framework.TestCase;
@@ -33,6 +35,8 @@ import logic.Board;
 import logic.Token;
 import logic.strategy.PopOutTokenMove;
 import logic.strategy.ConnectFourTokenMove;
+import logic.strategy.GravityTokenMove;
+import logic.strategy.TokenMoveStrategy;
 
 public class BoardTest extends TestCase {
 
@@ -556,4 +560,257 @@ public class BoardTest extends TestCase {
     assertFalse("Detects four in a row right diagonally for NONE",
         board.connectedRightDiagonally(Token.NONE));
   }
+
+  public void testFourTokensConnectedThroughCell() {
+    String boardStr[] = { "       ", "       ", "   Y   ", "  YR   ",
+        " YRR   ", "YRRY   " };
+
+    Board board = BoardUtils.buildBoard(boardStr, 7, 6,
+        new ConnectFourTokenMove());
+
+    assertTrue("Does not detect the line through its last token",
+        board.fourTokensConnected(Token.YELLOW, 3, 2));
+    assertTrue("Does not detect the line through its first token",
+        board.fourTokensConnected(Token.YELLOW, 0, 5));
+    assertFalse("Detects a line through a token of the opposite color",
+        board.fourTokensConnected(Token.RED, 3, 2));
+    assertFalse("Detects a line through a token out of the line",
+        board.fourTokensConnected(Token.YELLOW, 3, 5));
+  }
+
+  public void testIncrementalConnectionsInConnectFour() {
+    compareConnectionsWithScan(7, 6, new ConnectFourTokenMove(), false);
+  }
+
+  public void testIncrementalConnectionsInPopOut() {
+    compareConnectionsWithScan(4, 7, new PopOutTokenMove(), false);
+  }
+
+  public void testIncrementalConnectionsInGravity() {
+    compareConnectionsWithScan(8, 8, new GravityTokenMove(), true);
+  }
+
+  private void compareConnectionsWithScan(int width, int height,
+      TokenMoveStrategy strategy, boolean rowSensitive) {
+    Random random = new Random(11);
+
+    for (int game = 0; game < 200; game++) {
+      Board board = new Board(width, height, strategy);
+      Token turn = Token.YELLOW;
+
+      for (int move = 0; move < 80; move++) {
+        int column = random.nextInt(width);
+        int row = rowSensitive ? random.nextInt(height) : 0;
+
+        try {
+
+          board.putToken(turn, column, row);
+
+        } catch (InvalidMove e) {
+          continue;
+        }
+
+        assertEquals("Fails upon YELLOW connections",
+            board.scanFourTokensConnected(Token.YELLOW),
+            board.fourTokensConnected(Token.YELLOW));
+        assertEquals("Fails upon RED connections",
+            board.scanFourTokensConnected(Token.RED),
+            board.fourTokensConnected(Token.RED));
+        turn = turn.getOpposite();
+      }
+    }
+  }
+
+  public void testIncrementalEvaluationInConnectFour() {
+    compareEvaluationWithScan(7, 6, new ConnectFourTokenMove(), false);
+  }
+
+  public void testIncrementalEvaluationInPopOut() {
+    compareEvaluationWithScan(4, 7, new PopOutTokenMove(), false);
+  }
+
+  public void testIncrementalEvaluationInGravity() {
+    compareEvaluationWithScan(8, 8, new GravityTokenMove(), true);
+  }
+
+  // Moves are played and taken back at random, and the evaluation is
+  // compared with the one of every line counted from scratch
+  private void compareEvaluationWithScan(int width, int height,
+      TokenMoveStrategy strategy, boolean rowSensitive) {
+    Random random = new Random(5);
+
+    for (int game = 0; game < 100; game++) {
+      Board board = new Board(width, height, strategy);
+      Token turn = Token.YELLOW;
+
+      for (int move = 0; move < 80; move++) {
+        if (board.canUndo() && random.nextInt(4) == 0) {
+          board.undoToken();
+        } else {
+          int column = random.nextInt(width);
+          int row = rowSensitive ? random.nextInt(height) : 0;
+
+          if (board.makeMove(turn, column, row) == Move.NONE) {
+            continue;
+          }
+        }
+
+        assertEquals("Fails upon the YELLOW evaluation", scanEvaluation(
+            board), board.getEvaluation(Token.YELLOW));
+        assertEquals("Fails upon the RED evaluation", -scanEvaluation(board),
+            board.getEvaluation(Token.RED));
+        turn = turn.getOpposite();
+      }
+      assertEquals("Fails upon the evaluation of a copy",
+          board.getEvaluation(Token.YELLOW), board.copy().getEvaluation(
+              Token.YELLOW));
+    }
+  }
+
+  private int scanEvaluation(Board board) {
+    LineTable lines = board.getLineTable();
+    int score = 0;
+
+    for (int line = 0; line < lines.getLines(); line++) {
+      int yellow = 0, red = 0;
+
+      for (int cell : lines.getCells(line)) {
+        Token token = board.getSlot(cell / board.getHeight(), cell
+            % board.getHeight());
+
+        if (token == Token.YELLOW) {
+          yellow++;
+        } else if (token == Token.RED) {
+          red++;
+        }
+      }
+      if (red == 0 && yellow > 0) {
+        score += 1 << (2 * (yellow - 1));
+      } else if (yellow == 0 && red > 0) {
+        score -= 1 << (2 * (red - 1));
+      }
+    }
+    return score;
+  }
+
+  public void testHashKey() {
+    Board board1 = new Board(7, 6, new ConnectFourTokenMove());
+    Board board2 = new Board(7, 6, new ConnectFourTokenMove());
+    assertEquals("Fails upon empty boards", board1.hashKey(), board2.hashKey());
+
+    try {
+
+      board1.putToken(Token.YELLOW, 0, 0);
+      board1.putToken(Token.RED, 1, 0);
+      board1.putToken(Token.YELLOW, 2, 0);
+      assertTrue("Fails upon different boards",
+          board1.hashKey() != board2.hashKey());
+
+      board2.putToken(Token.YELLOW, 2, 0);
+      board2.putToken(Token.RED, 1, 0);
+      board2.putToken(Token.YELLOW, 0, 0);
+      assertEquals("Fails upon transposed moves", board1.hashKey(),
+          board2.hashKey());
+      assertEquals("Fails upon equal boards", board1.hashCode(),
+          board2.hashCode());
+
+    } catch (InvalidMove e) {
+
+      fail("Fails upon invalid move");
+    }
+  }
+
+  public void testHashKeyAfterPopOutShift() {
+    Random random = new Random(3);
+    Board board = new Board(4, 7, new PopOutTokenMove());
+    Board copy = new Board(4, 7, new PopOutTokenMove());
+    Token turn = Token.YELLOW;
+
+    for (int move = 0; move < 500; move++) {
+      try {
+
+        board.putToken(turn, random.nextInt(4), 0);
+        turn = turn.getOpposite();
+
+      } catch (InvalidMove e) {
+
+        fail("Fails upon invalid move");
+      }
+
+      copy.setGrid(board.getGrid());
+      assertEquals("Fails upon the key of the shifted board", copy.hashKey(),
+          board.hashKey());
+    }
+  }
+
+  public void testCanonicalKeyOfMirroredConnectFour() {
+    Random random = new Random(3);
+    Board board = new BitBoard(7, 6, new ConnectFourTokenMove());
+    Board mirror = new BitBoard(7, 6, new ConnectFourTokenMove());
+    Token turn = Token.YELLOW;
+
+    for (int move = 0; move < 20; move++) {
+      int column = random.nextInt(7);
+
+      if (board.makeMove(turn, column, 0) != Move.NONE) {
+        mirror.makeMove(turn, 6 - column, 0);
+        turn = turn.getOpposite();
+
+        assertEquals("Fails upon the mirror image", board.canonicalKey(),
+            mirror.canonicalKey());
+      }
+    }
+    assertTrue("Fails upon an asymmetric position",
+        board.hashKey() != mirror.hashKey());
+
+    while (mirror.canUndo()) {
+      mirror.undoToken();
+    }
+    assertEquals("Fails upon the empty board", new Board(7, 6,
+        new ConnectFourTokenMove()).canonicalKey(), mirror.canonicalKey());
+  }
+
+  public void testCanonicalKeyOfSquareGravity() {
+    Random random = new Random(3);
+    Token[][] grid = new Token[9][9];
+
+    for (int column = 0; column < 9; column++) {
+      for (int row = 0; row < 9; row++) {
+        int value = random.nextInt(3);
+        grid[column][row] = value == 0 ? Token.YELLOW
+            : value == 1 ? Token.RED : Token.NONE;
+      }
+    }
+
+    Board board = new Board(9, 9, new GravityTokenMove());
+    board.setGrid(grid);
+    assertEquals("Fails upon the symmetries", 8, board.getSymmetries());
+
+    for (int symmetry = 0; symmetry < 8; symmetry++) {
+      Board image = new Board(9, 9, new GravityTokenMove());
+
+      for (int column = 0; column < 9; column++) {
+        for (int row = 0; row < 9; row++) {
+          int c = column, r = row;
+
+          if ((symmetry & 4) != 0) {
+            c = row;
+            r = column;
+          }
+          if ((symmetry & 1) != 0) {
+            c = 8 - c;
+          }
+          if ((symmetry & 2) != 0) {
+            r = 8 - r;
+          }
+          image.setCell(c, r, grid[column][row]);
+        }
+      }
+      assertEquals("Fails upon the symmetric image", board.canonicalKey(),
+          image.canonicalKey());
+    }
+
+    assertEquals("Fails upon a rectangular board", 4, new Board(9, 7,
+        new GravityTokenMove()).getSymmetries());
+  }
 }
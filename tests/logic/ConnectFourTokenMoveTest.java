@@ -26,9 +26,12 @@
  */
 package logic;
 
+import java.util.Random;
+
 import exception.InvalidMove;
 import junit.framework.TestCase;
 import logic.Board;
+import logic.Move;
 import logic.Token;
 import logic.strategy.ConnectFourTokenMove;
 
@@ -55,4 +58,86 @@ public class ConnectFourTokenMoveTest extends TestCase {
       fail("Fails upon invalid move");
     }
   }
+
+  public void testMakeMove() {
+    Board board = new Board(7, 6, new ConnectFourTokenMove());
+
+    assertEquals("Fails upon the landing cell", Move.encode(2, 5),
+        board.makeMove(Token.YELLOW, 2, 0));
+    assertEquals("Fails upon the landing cell", Move.encode(2, 4),
+        board.makeMove(Token.RED, 2, 3));
+    assertEquals("Fails upon invalid column", Move.NONE,
+        board.makeMove(Token.RED, 7, 0));
+    assertEquals("Fails upon NONE token", Move.NONE,
+        board.makeMove(Token.NONE, 0, 0));
+    assertEquals("Fails tokens", 2, board.getTokens());
+  }
+
+  public void testComputeLanding() {
+    Board board = new Board(7, 6, new ConnectFourTokenMove());
+
+    board.makeMove(Token.YELLOW, 2, 0);
+    assertEquals("Fails upon the landing cell", Move.encode(2, 4),
+        board.computeLanding(2, 0));
+    assertEquals("Fails upon an unchanged board", 1, board.getTokens());
+    assertEquals("Fails upon the landing of makeMove",
+        board.computeLanding(2, 3), board.makeMove(Token.RED, 2, 3));
+  }
+
+  public void testUndoToken() {
+    Random random = new Random(5);
+    Board board = new Board(7, 6, new ConnectFourTokenMove());
+    Board[] history = new Board[30];
+    Token turn = Token.YELLOW;
+    int moves = 0;
+
+    while (moves < history.length) {
+      Board before = new Board(7, 6, new ConnectFourTokenMove());
+      before.setGrid(board.getGrid());
+      before.setTokens(board.getTokens());
+
+      try {
+
+        board.putToken(turn, random.nextInt(7), 0);
+        history[moves++] = before;
+        turn = turn.getOpposite();
+
+      } catch (InvalidMove e) {
+      }
+    }
+
+    while (moves > 0) {
+      Board before = history[--moves];
+      board.undoToken();
+
+      assertEquals("Fails upon the restored grid", before, board);
+      assertEquals("Fails upon the restored tokens", before.getTokens(),
+          board.getTokens());
+      assertEquals("Fails upon the restored key", before.hashKey(),
+          board.hashKey());
+      assertEquals("Fails upon the restored connections",
+          before.fourTokensConnected(Token.YELLOW),
+          board.fourTokensConnected(Token.YELLOW));
+      assertEquals("Fails upon the restored connections",
+          before.fourTokensConnected(Token.RED),
+          board.fourTokensConnected(Token.RED));
+    }
+    assertFalse("Fails upon an empty history", board.canUndo());
+  }
+
+  public void testLegalMoves() {
+    Board board = new Board(7, 6, new ConnectFourTokenMove());
+    int[] moves = new int[7 * 6];
+
+    assertEquals("Fails upon an empty board", 7, board.legalMoves(moves));
+
+    for (int i = 0; i < 6; i++) {
+      board.makeMove(i % 2 == 0 ? Token.YELLOW : Token.RED, 3, 0);
+    }
+    assertEquals("Fails upon a full column", 6, board.legalMoves(moves));
+    for (int i = 0; i < 6; i++) {
+      assertTrue("Fails upon a move in a full column",
+          Move.getColumn(moves[i]) != 3);
+    }
+  }
 }
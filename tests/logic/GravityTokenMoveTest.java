@@ -26,11 +26,14 @@
  */
 package logic;
 
+import java.util.Random;
+
 import utils.BoardUtils;
 import exception.InvalidMove;
 import junit.framework.TestCase;
 import logic.Board;
 import logic.Token;
+import logic.strategy.GravityTable;
 import logic.strategy.GravityTokenMove;
 
 public class GravityTokenMoveTest extends TestCase {
@@ -169,4 +172,138 @@ public class GravityTokenMoveTest extends TestCase {
     assertEquals("Fails when putting token attracted by three sides", tComp,
         tRes);
   }
+
+  public void testUndoToken() {
+    Random random = new Random(5);
+    Board board = new Board(8, 8, new GravityTokenMove());
+    Board[] history = new Board[40];
+    Token turn = Token.YELLOW;
+    int moves = 0;
+
+    while (moves < history.length) {
+      Board before = new Board(8, 8, new GravityTokenMove());
+      before.setGrid(board.getGrid());
+      before.setTokens(board.getTokens());
+
+      try {
+
+        board.putToken(turn, random.nextInt(8), random.nextInt(8));
+        history[moves++] = before;
+        turn = turn.getOpposite();
+
+      } catch (InvalidMove e) {
+      }
+    }
+
+    while (moves > 0) {
+      Board before = history[--moves];
+      board.undoToken();
+
+      assertEquals("Fails upon the restored grid", before, board);
+      assertEquals("Fails upon the restored tokens", before.getTokens(),
+          board.getTokens());
+      assertEquals("Fails upon the restored key", before.hashKey(),
+          board.hashKey());
+      assertEquals("Fails upon the restored connections",
+          before.fourTokensConnected(Token.YELLOW),
+          board.fourTokensConnected(Token.YELLOW));
+      assertEquals("Fails upon the restored connections",
+          before.fourTokensConnected(Token.RED),
+          board.fourTokensConnected(Token.RED));
+    }
+    assertFalse("Fails upon an empty history", board.canUndo());
+  }
+
+  public void testComputeLanding() {
+    Random random = new Random(7);
+    GravityTokenMove strategy = new GravityTokenMove();
+    int sizes[][] = { { 5, 5 }, { 6, 5 }, { 7, 6 }, { 10, 10 }, { 15, 15 } };
+
+    for (int[] size : sizes) {
+      int width = size[0], height = size[1];
+      GravityTable table = GravityTable.getInstance(width, height);
+
+      for (int game = 0; game < 20; game++) {
+        Board board = new Board(width, height, strategy);
+        Token[][] grid = new Token[width][height];
+
+        for (int column = 0; column < width; column++) {
+          for (int row = 0; row < height; row++) {
+            int value = random.nextInt(4);
+            grid[column][row] = value == 0 ? Token.YELLOW
+                : value == 1 ? Token.RED : Token.NONE;
+          }
+        }
+        board.setGrid(grid);
+
+        for (int column = 0; column < width; column++) {
+          for (int row = 0; row < height; row++) {
+            int gravity = table.getGravity(column, row);
+            int horizontal = GravityTable.getHorizontalGravity(gravity);
+            int vertical = GravityTable.getVerticalGravity(gravity);
+            int columnAux = column, rowAux = row;
+
+            do {
+              columnAux += horizontal;
+              rowAux += vertical;
+            } while ((columnAux != column || rowAux != row)
+                && board.isValidCell(columnAux, rowAux)
+                && board.getSlot(columnAux, rowAux) == Token.NONE);
+
+            assertEquals("Fails upon the landing slot", Move.encode(columnAux
+                - horizontal, rowAux - vertical), strategy.computeLanding(
+                board, column, row));
+          }
+        }
+      }
+    }
+  }
+
+  public void testLegalMoves() {
+    Random random = new Random(11);
+    GravityTokenMove strategy = new GravityTokenMove();
+    Board board = new Board(9, 7, strategy);
+    int[] moves = new int[9 * 7];
+    Token turn = Token.YELLOW;
+
+    for (int move = 0; move < 9 * 7; move++) {
+      boolean[] landings = new boolean[9 * 7];
+      int expected = 0;
+
+      for (int column = 0; column < 9; column++) {
+        for (int row = 0; row < 7; row++) {
+          int landing = strategy.computeLanding(board, column, row);
+          int slot = Move.getColumn(landing) * 7 + Move.getRow(landing);
+
+          if (board.getSlot(Move.getColumn(landing), Move.getRow(landing))
+              == Token.NONE
+              && !landings[slot]) {
+            landings[slot] = true;
+            expected++;
+          }
+        }
+      }
+
+      int count = board.legalMoves(moves);
+      assertEquals("Fails upon the number of landing slots", expected, count);
+
+      for (int i = 0; i < count; i++) {
+        int landing = strategy.computeLanding(board,
+            Move.getColumn(moves[i]), Move.getRow(moves[i]));
+        int slot = Move.getColumn(landing) * 7 + Move.getRow(landing);
+
+        assertTrue("Fails upon a repeated landing slot", landings[slot]);
+        landings[slot] = false;
+      }
+
+      if (count == 0) {
+        break;
+      }
+      int chosen = moves[random.nextInt(count)];
+      assertTrue("Fails upon an illegal move", board.makeMove(turn,
+          Move.getColumn(chosen), Move.getRow(chosen)) != Move.NONE);
+      turn = turn.getOpposite();
+    }
+    assertTrue("Fails upon a full board", board.isBoardFull());
+  }
 }
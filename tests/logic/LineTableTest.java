@@ -0,0 +1,87 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic;
+
+import junit.framework.TestCase;
+import logic.LineTable;
+
+public class LineTableTest extends TestCase {
+
+  public void testGetLines() {
+    LineTable table = LineTable.getInstance(7, 6, 4);
+
+    assertEquals("Fails upon horizontal lines", 24,
+        table.getLastLine(LineTable.HORIZONTAL)
+            - table.getFirstLine(LineTable.HORIZONTAL) + 1);
+    assertEquals("Fails upon vertical lines", 21,
+        table.getLastLine(LineTable.VERTICAL)
+            - table.getFirstLine(LineTable.VERTICAL) + 1);
+    assertEquals("Fails upon all the lines of a Connect4 board", 69,
+        table.getLines());
+
+    assertEquals("Fails upon a line longer than the board", 0, LineTable
+        .getInstance(5, 5, 8).getLines());
+  }
+
+  public void testGetInstance() {
+    assertSame("Fails when sharing the table of the same size",
+        LineTable.getInstance(10, 10, 5), LineTable.getInstance(10, 10, 5));
+    assertNotSame("Fails when sharing the table of a different size",
+        LineTable.getInstance(10, 10, 5), LineTable.getInstance(10, 10, 4));
+  }
+
+  public void testGetLinesThrough() {
+    LineTable table = LineTable.getInstance(7, 6, 4);
+
+    assertEquals("Fails upon a corner", 3, table.getLinesThrough(0, 0).length);
+    assertEquals("Fails upon the center", 13,
+        table.getLinesThrough(3, 2).length);
+
+    for (int line : table.getLinesThrough(3, 2)) {
+      boolean found = false;
+
+      for (int cell : table.getCells(line)) {
+        found = found || cell == table.getCellIndex(3, 2);
+      }
+      assertTrue("Fails upon a line that does not go through the cell", found);
+    }
+  }
+
+  public void testGetMask() {
+    LineTable table = LineTable.getInstance(15, 15, 4);
+    assertEquals("Fails upon the number of words", 4, table.getWords());
+
+    for (int line = 0; line < table.getLines(); line++) {
+      int bits = 0;
+
+      for (int word = 0; word < table.getWords(); word++) {
+        bits += Long.bitCount(table.getMask(line, word));
+      }
+      assertEquals("Fails upon the bits of a line", 4, bits);
+    }
+  }
+}
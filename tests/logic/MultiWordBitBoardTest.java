@@ -0,0 +1,139 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic;
+
+import java.util.Random;
+
+import exception.InvalidMove;
+import junit.framework.TestCase;
+import logic.Board;
+import logic.MultiWordBitBoard;
+import logic.Position;
+import logic.Token;
+import logic.strategy.ConnectFourTokenMove;
+import logic.strategy.GravityTokenMove;
+import logic.strategy.TokenMoveStrategy;
+
+public class MultiWordBitBoardTest extends TestCase {
+
+  public void testGetSlot() {
+    Board board = new MultiWordBitBoard(15, 15, new GravityTokenMove());
+    assertEquals("Fails when the board is empty", board.getSlot(14, 14),
+        Token.NONE);
+    assertEquals("Fails upon invalid row", board.getSlot(0, 15), Token.NONE);
+
+    try {
+
+      board.putToken(Token.YELLOW, 14, 7);
+      board.putToken(Token.RED, 13, 7);
+      assertEquals("Fails upon YELLOW token", board.getSlot(14, 7),
+          Token.YELLOW);
+      assertEquals("Fails upon RED token", board.getSlot(13, 7), Token.RED);
+      assertEquals("Fails upon empty slot", board.getSlot(12, 7), Token.NONE);
+
+    } catch (InvalidMove e) {
+
+      fail("Fails upon invalid move");
+    }
+  }
+
+  public void testTooLargeBoard() {
+    try {
+
+      new MultiWordBitBoard(16, 16, new GravityTokenMove());
+      fail("Accepts a board that does not fit in the words");
+
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+  public void testSameAsBoardInGravity() {
+    compareRandomGames(15, 15, 4, new GravityTokenMove(), true);
+    compareRandomGames(13, 9, 5, new GravityTokenMove(), true);
+    compareRandomGames(5, 5, 4, new GravityTokenMove(), true);
+  }
+
+  public void testSameAsBoardInConnectN() {
+    compareRandomGames(15, 15, 8, new ConnectFourTokenMove(), false);
+    compareRandomGames(12, 10, 3, new ConnectFourTokenMove(), false);
+  }
+
+  private void compareRandomGames(int width, int height, int connectLength,
+      TokenMoveStrategy strategy, boolean anyRow) {
+    Random random = new Random(7);
+
+    for (int game = 0; game < 50; game++) {
+      Board board = new Board(width, height, connectLength, strategy);
+      Board bitBoard = new MultiWordBitBoard(width, height, connectLength,
+          strategy);
+      Token turn = Token.YELLOW;
+
+      for (int move = 0; move < width * height; move++) {
+        int column = random.nextInt(width);
+        int row = anyRow ? random.nextInt(height) : 0;
+
+        try {
+
+          board.putToken(turn, column, row);
+          Position position = bitBoard.putToken(turn, column, row);
+
+          assertEquals("Fails upon line through the last token",
+              board.fourTokensConnected(turn, position.getX(), position.getY()),
+              bitBoard.fourTokensConnected(turn, position.getX(),
+                  position.getY()));
+
+        } catch (InvalidMove e) {
+          continue;
+        }
+
+        assertEquals("Fails upon different grids", board, bitBoard);
+        for (int c = 0; c < width; c++) {
+          assertEquals("Fails upon full column", board.isColumnFull(c),
+              bitBoard.isColumnFull(c));
+        }
+        for (Token color : new Token[] { Token.YELLOW, Token.RED }) {
+          assertEquals("Fails upon connected tokens",
+              board.fourTokensConnected(color),
+              bitBoard.fourTokensConnected(color));
+          assertEquals("Fails upon horizontal line",
+              board.fourTokensConnectedHorizontally(color),
+              bitBoard.fourTokensConnectedHorizontally(color));
+          assertEquals("Fails upon vertical line",
+              board.fourTokensConnectedVertically(color),
+              bitBoard.fourTokensConnectedVertically(color));
+          assertEquals("Fails upon right diagonal",
+              board.connectedRightDiagonally(color),
+              bitBoard.connectedRightDiagonally(color));
+          assertEquals("Fails upon left diagonal",
+              board.connectedLeftDiagonally(color),
+              bitBoard.connectedLeftDiagonally(color));
+        }
+        turn = turn.getOpposite();
+      }
+    }
+  }
+}
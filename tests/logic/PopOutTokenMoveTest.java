@@ -26,6 +26,8 @@
  */
 package logic;
 
+import java.util.Random;
+
 import utils.BoardUtils;
 import exception.InvalidMove;
 import junit.framework.TestCase;
@@ -67,4 +69,69 @@ public class PopOutTokenMoveTest extends TestCase {
     assertEquals("Fails upon displacing tokens in a full column", board1,
         board2);
   }
+
+  public void testUndoToken() {
+    Random random = new Random(5);
+    Board board = new Board(4, 7, new PopOutTokenMove());
+    Board[] history = new Board[200];
+    Token turn = Token.YELLOW;
+    int moves = 0;
+
+    while (moves < history.length) {
+      Board before = new Board(4, 7, new PopOutTokenMove());
+      before.setGrid(board.getGrid());
+      before.setTokens(board.getTokens());
+
+      try {
+
+        board.putToken(turn, random.nextInt(4), 0);
+        history[moves++] = before;
+        turn = turn.getOpposite();
+
+      } catch (InvalidMove e) {
+      }
+    }
+
+    while (moves > 0) {
+      Board before = history[--moves];
+      board.undoToken();
+
+      assertEquals("Fails upon the restored grid", before, board);
+      assertEquals("Fails upon the restored tokens", before.getTokens(),
+          board.getTokens());
+      assertEquals("Fails upon the restored key", before.hashKey(),
+          board.hashKey());
+      assertEquals("Fails upon the restored connections",
+          before.fourTokensConnected(Token.YELLOW),
+          board.fourTokensConnected(Token.YELLOW));
+      assertEquals("Fails upon the restored connections",
+          before.fourTokensConnected(Token.RED),
+          board.fourTokensConnected(Token.RED));
+    }
+    assertFalse("Fails upon an empty history", board.canUndo());
+  }
+
+  public void testLegalMoves() {
+    Board board = new Board(4, 7, new PopOutTokenMove());
+    int[] moves = new int[4 * 7];
+
+    for (int i = 0; i < 8; i++) {
+      board.makeMove(i % 2 == 0 ? Token.YELLOW : Token.RED, 1, 0);
+    }
+    assertEquals("Fails upon a full column", 4, board.legalMoves(moves));
+  }
+
+  public void testComputeLanding() {
+    Board board = new Board(4, 7, new PopOutTokenMove());
+
+    for (int i = 0; i < 7; i++) {
+      assertEquals("Fails upon the landing of a drop", Move.encode(1, 6 - i),
+          board.computeLanding(1, 0));
+      board.makeMove(i % 2 == 0 ? Token.YELLOW : Token.RED, 1, 0);
+    }
+    assertEquals("Fails upon the landing of a push", Move.encode(1, 0),
+        board.computeLanding(1, 0));
+    assertEquals("Fails upon the landing of makeMove",
+        board.computeLanding(1, 0), board.makeMove(Token.RED, 1, 0));
+  }
 }
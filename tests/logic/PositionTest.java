@@ -0,0 +1,61 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic;
+
+import junit.framework.TestCase;
+import logic.Move;
+import logic.Position;
+
+public class PositionTest extends TestCase {
+
+  public void testValueOf() {
+    Position position = Position.valueOf(3, 4);
+    assertEquals("Fails upon column", 3, position.getX());
+    assertEquals("Fails upon row", 4, position.getY());
+    assertSame("Fails when sharing positions", position,
+        Position.valueOf(3, 4));
+    assertEquals("Fails upon equal positions", new Position(3, 4), position);
+
+    try {
+
+      position.setX(0);
+      fail("Allows changing a shared position");
+
+    } catch (UnsupportedOperationException e) {
+    }
+
+    assertEquals("Fails upon a position out of the cache", -1, Position
+        .valueOf(-1, 0).getX());
+  }
+
+  public void testMove() {
+    int move = Move.encode(14, 13);
+    assertEquals("Fails upon column", 14, Move.getColumn(move));
+    assertEquals("Fails upon row", 13, Move.getRow(move));
+    assertTrue("Fails upon an invalid move", move != Move.NONE);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.game;
+
+import junit.framework.TestCase;
+import logic.Position;
+import logic.Token;
+import logic.game.ConnectNGame;
+import logic.game.Game;
+
+public class ConnectNGameTest extends TestCase {
+
+  public void testWinner() {
+    Game game = new ConnectNGame(9, 8, 5);
+    game.startGame();
+
+    // Four in a row is not enough to win
+    for (int i = 0; i < 4; i++) {
+      game.setToken(new Position(0, 0));
+      game.setToken(new Position(1, 0));
+    }
+    assertFalse("Finishes with four in a row", game.isGameOver());
+    assertEquals("Returns a winner with four in a row", Token.NONE,
+        game.winner());
+
+    game.setToken(new Position(0, 0));
+    assertTrue("Does not finish with five in a row", game.isGameOver());
+    assertEquals("Fails when YELLOW wins", Token.YELLOW, game.winner());
+  }
+
+  public void testLargeBoard() {
+    Game game = new ConnectNGame(15, 15, 3);
+    game.startGame();
+
+    game.setToken(new Position(0, 0));
+    game.setToken(new Position(0, 0));
+    game.setToken(new Position(1, 0));
+    game.setToken(new Position(1, 0));
+    game.setToken(new Position(2, 0));
+    assertEquals("Fails when YELLOW wins in a large board", Token.YELLOW,
+        game.winner());
+  }
+
+  public void testGetRows() {
+    Game game = new ConnectNGame(9, 8, 5);
+    assertEquals(
+        "Fails when returning the number of rows of the board in a Connect-N game",
+        game.getRows(), 8);
+  }
+
+  public void testGetColumns() {
+    Game game = new ConnectNGame(9, 8, 5);
+    assertEquals(
+        "Fails when returning the number of columns of the board in a Connect-N game",
+        game.getColumns(), 9);
+  }
+}
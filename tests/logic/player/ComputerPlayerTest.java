@@ -0,0 +1,195 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import logic.Board;
+import logic.Position;
+import logic.Token;
+import logic.search.AlphaBetaSearch;
+import logic.search.SearchSettings;
+import logic.strategy.ConnectFourTokenMove;
+import logic.strategy.PopOutTokenMove;
+
+public class ComputerPlayerTest extends TestCase {
+
+  private static final int TIME_BUDGET = 200;
+  private static final int NODE_BUDGET = 20000;
+
+  public void testNoPondering() {
+    ComputerPlayer player = createPlayer(false);
+
+    assertNotNull("Fails upon a move", player.getMove(createGrid()));
+    assertFalse("Fails upon pondering", player.isPondering());
+  }
+
+  // The answer to the guessed reply is the one pondered on, with no search
+  // of its own
+  public void testPonderHit() throws InterruptedException {
+    ComputerPlayer player = createPlayer(true);
+    Position move = player.getMove(createGrid());
+
+    assertTrue("Fails upon pondering", player.isPondering());
+    while (player.getGuessedGrid() == null && player.isPondering()) {
+      Thread.sleep(10);
+    }
+
+    Token[][] guessed = player.getGuessedGrid();
+    assertNotNull("Fails upon the guessed reply", guessed);
+    assertEquals("Fails upon the move pondered on", Token.YELLOW,
+        guessed[move.getX()][5]);
+
+    Position answer = player.getMove(guessed);
+
+    assertNotNull("Fails upon the answer", answer);
+    assertEquals("Fails upon a legal answer", Token.NONE,
+        guessed[answer.getX()][0]);
+    assertEquals("Fails upon the answer pondered on", 1, player
+        .getSearches());
+  }
+
+  public void testPonderMiss() {
+    ComputerPlayer player = createPlayer(true);
+    Token[][] grid = createGrid();
+    Position move = player.getMove(grid);
+
+    drop(grid, move.getX(), Token.YELLOW);
+    // A reply on the edge, most likely not the guessed one
+    drop(grid, move.getX() < 3 ? 6 : 0, Token.RED);
+
+    Position answer = player.getMove(grid);
+    assertNotNull("Fails upon the answer", answer);
+    assertEquals("Fails upon a legal answer", Token.NONE,
+        grid[answer.getX()][0]);
+    assertEquals("Fails upon the answer searched", 2, player.getSearches());
+    assertTrue("Fails upon pondering again", player.isPondering());
+  }
+
+  public void testNodeBudget() {
+    ComputerPlayer player = new ConnectFourComputerPlayer(Token.YELLOW, 4,
+        createLevelSettings());
+
+    assertNotNull("Fails upon a move", player.getMove(createGrid()));
+    assertTrue("Fails upon the node budget", player._search.getNodes()
+        <= NODE_BUDGET + AlphaBetaSearch.MAX_DEPTH);
+  }
+
+  // The only move that does not lose at once
+  public void testPerfectBlocks() {
+    SearchSettings settings = new SearchSettings();
+    Token[][] grid = createGrid();
+
+    settings.setPerfect(true);
+    for (int i = 0; i < 3; i++) {
+      drop(grid, 1 + i, Token.RED);
+      drop(grid, i == 0 ? 0 : 6, Token.YELLOW);
+    }
+
+    Position move = new ConnectFourComputerPlayer(Token.YELLOW, 4, settings)
+        .getMove(grid);
+    assertEquals("Fails upon the perfect move", 4, move.getX());
+  }
+
+  // However long every move takes, the same budget plays the same game
+  public void testConnectFourLevelIsReproducible() {
+    assertEquals("Fails upon the moves of a connect4 game", playGame(false),
+        playGame(false));
+  }
+
+  public void testPopOutLevelIsReproducible() {
+    assertEquals("Fails upon the moves of a popout game", playGame(true),
+        playGame(true));
+  }
+
+  private List<Position> playGame(boolean popOut) {
+    SearchSettings settings = createLevelSettings();
+    Board board = popOut ? new Board(4, 7, new PopOutTokenMove())
+        : new Board(7, 6, new ConnectFourTokenMove());
+    ComputerPlayer yellow = popOut ? new PopOutComputerPlayer(Token.YELLOW,
+        settings) : new ConnectFourComputerPlayer(Token.YELLOW, 4, settings);
+    ComputerPlayer red = popOut ? new PopOutComputerPlayer(Token.RED,
+        settings) : new ConnectFourComputerPlayer(Token.RED, 4, settings);
+    List<Position> moves = new ArrayList<Position>();
+    Token turn = Token.YELLOW;
+
+    for (int i = 0; i < 12; i++) {
+      Position move = (turn == Token.YELLOW ? yellow : red).getMove(board
+          .getGrid());
+
+      if (move == null) {
+        break;
+      }
+      board.makeMove(turn, move.getX(), move.getY());
+      moves.add(move);
+      if (board.fourTokensConnected(turn)) {
+        break;
+      }
+      turn = turn.getOpposite();
+    }
+    return moves;
+  }
+
+  private SearchSettings createLevelSettings() {
+    SearchSettings settings = new SearchSettings();
+
+    settings.setNodeBudget(NODE_BUDGET);
+    settings.setThreads(4);
+    settings.setSeed(7);
+    return settings;
+  }
+
+  private ComputerPlayer createPlayer(boolean pondering) {
+    SearchSettings settings = new SearchSettings();
+
+    settings.setTimeBudget(TIME_BUDGET);
+    settings.setPondering(pondering);
+    return new ConnectFourComputerPlayer(Token.YELLOW, 4, settings);
+  }
+
+  private void drop(Token[][] grid, int column, Token color) {
+    int row = grid[column].length - 1;
+
+    while (grid[column][row] != Token.NONE) {
+      row--;
+    }
+    grid[column][row] = color;
+  }
+
+  private Token[][] createGrid() {
+    Token[][] grid = new Token[7][6];
+
+    for (int column = 0; column < 7; column++) {
+      for (int row = 0; row < 6; row++) {
+        grid[column][row] = Token.NONE;
+      }
+    }
+    return grid;
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import utils.BoardUtils;
+import junit.framework.TestCase;
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.Token;
+import logic.MultiWordBitBoard;
+import logic.strategy.ConnectFourTokenMove;
+import logic.strategy.GravityTokenMove;
+import logic.strategy.PopOutTokenMove;
+
+public class AlphaBetaSearchTest extends TestCase {
+
+  public void testFindsWin() {
+    String grid[] = { "       ", "       ", "       ", "       ", " R R   ",
+        " YYY R " };
+
+    Board board = BoardUtils.buildBoard(grid, 7, 6, new ConnectFourTokenMove());
+    AlphaBetaSearch search = new AlphaBetaSearch(board);
+    int move = search.search(Token.YELLOW, 6);
+
+    assertTrue("Fails upon the winning move", Move.getColumn(move) == 0
+        || Move.getColumn(move) == 4);
+    assertEquals("Fails upon the winning score",
+        AlphaBetaSearch.WIN_SCORE - 1, search.getScore());
+  }
+
+  public void testBlocksWin() {
+    String grid[] = { "       ", "       ", "       ", "   R   ", "   R Y ",
+        "  YR YY" };
+
+    Board board = BoardUtils.buildBoard(grid, 7, 6, new ConnectFourTokenMove());
+    AlphaBetaSearch search = new AlphaBetaSearch(board);
+
+    assertEquals("Fails upon blocking the column", 3,
+        Move.getColumn(search.search(Token.YELLOW, 4)));
+  }
+
+  public void testRestoresBoard() {
+    String grid[] = { "       ", "       ", "       ", "  R    ", "  YR   ",
+        " RYYR  " };
+
+    Board board = BoardUtils.buildBoard(grid, 7, 6, new ConnectFourTokenMove());
+    Board copy = BoardUtils.buildBoard(grid, 7, 6, new ConnectFourTokenMove());
+    AlphaBetaSearch search = new AlphaBetaSearch(board);
+
+    search.search(Token.YELLOW, 7);
+
+    assertEquals("Fails upon the restored grid", copy, board);
+    assertEquals("Fails upon the restored key", copy.hashKey(),
+        board.hashKey());
+    assertEquals("Fails upon the restored tokens", copy.getTokens(),
+        board.getTokens());
+  }
+
+  public void testPopOutSearch() {
+    String grid[] = { "    ", "    ", "    ", "RR  ", "YY  ", "YRY ", "RYRY" };
+
+    Board board = BoardUtils.buildBoard(grid, 4, 7, new PopOutTokenMove());
+    AlphaBetaSearch search = new AlphaBetaSearch(board);
+    int move = search.search(Token.YELLOW, 5);
+
+    assertTrue("Fails upon a legal move", move != Move.NONE);
+    assertTrue("Fails upon the node count", search.getNodes() > 0);
+  }
+
+  public void testSearchForTimeBudget() {
+    Board board = new BitBoard(7, 6, new ConnectFourTokenMove());
+    AlphaBetaSearch search = new AlphaBetaSearch(board);
+    search.setTranspositionTable(new TranspositionTable(1));
+
+    long start = System.currentTimeMillis();
+    int move = search.searchFor(Token.YELLOW, 50);
+    long elapsed = System.currentTimeMillis() - start;
+
+    assertTrue("Fails upon a legal move", move != Move.NONE);
+    assertTrue("Fails upon the completed depth", search.getDepth() > 0);
+    assertTrue("Fails upon the time budget", elapsed < 1000);
+    assertEquals("Fails upon the restored board", new BitBoard(7, 6,
+        new ConnectFourTokenMove()), board);
+  }
+
+  public void testSearchForStopsOnWin() {
+    String grid[] = { "       ", "       ", "       ", "       ", " R R   ",
+        " YYY R " };
+
+    Board board = BoardUtils.buildBoard(grid, 7, 6, new ConnectFourTokenMove());
+    AlphaBetaSearch search = new AlphaBetaSearch(board);
+    int move = search.searchFor(Token.YELLOW, 10000);
+
+    assertTrue("Fails upon the winning move", Move.getColumn(move) == 0
+        || Move.getColumn(move) == 4);
+    assertEquals("Fails upon stopping at the win", 1, search.getDepth());
+  }
+
+  // The order of the moves changes how many nodes are searched, never the
+  public void testMoveOrdering() {
+    String grid[] = { "       ", "       ", "       ", "  R    ", "  YR   ",
+        " RYYR  " };
+    int[] scores = new int[4];
+
+    for (int i = 0; i < 4; i++) {
+      Board board = BoardUtils.buildBoard(grid, 7, 6,
+          new ConnectFourTokenMove());
+      AlphaBetaSearch search = new AlphaBetaSearch(board);
+
+      search.setKillerMoves((i & 1) != 0);
+      search.setHistoryMoves((i & 2) != 0);
+      search.searchFor(Token.YELLOW, Long.MAX_VALUE, 1, 7);
+      scores[i] = search.getScore();
+    }
+
+    for (int i = 1; i < 4; i++) {
+      assertEquals("Fails upon the score of an ordering", scores[0],
+          scores[i]);
+    }
+  }
+
+  // Without a table to mix depths up, every driver finds the same score
+  public void testDrivers() {
+    String grid[] = { "       ", "       ", "       ", "  R    ", "  YR   ",
+        " RYYR  " };
+    SearchDriver[] drivers = SearchDriver.values();
+    int[] scores = new int[drivers.length];
+
+    for (int i = 0; i < drivers.length; i++) {
+      Board board = BoardUtils.buildBoard(grid, 7, 6,
+          new ConnectFourTokenMove());
+      AlphaBetaSearch search = new AlphaBetaSearch(board);
+
+      search.setDriver(drivers[i]);
+      assertTrue("Fails upon a legal move", search.searchFor(Token.YELLOW,
+          Long.MAX_VALUE, 1, 6) != Move.NONE);
+      scores[i] = search.getScore();
+    }
+
+    for (int i = 1; i < drivers.length; i++) {
+      assertEquals("Fails upon the score of " + drivers[i], scores[0],
+          scores[i]);
+    }
+  }
+
+  public void testMtdfFindsWin() {
+    String grid[] = { "       ", "       ", "       ", "       ", " R R   ",
+        " YYY R " };
+
+    Board board = BoardUtils.buildBoard(grid, 7, 6, new ConnectFourTokenMove());
+    AlphaBetaSearch search = new AlphaBetaSearch(board);
+    search.setTranspositionTable(new TranspositionTable(1));
+    search.setDriver(SearchDriver.MTDF);
+    int move = search.search(Token.YELLOW, 6);
+
+    assertTrue("Fails upon the winning move", Move.getColumn(move) == 0
+        || Move.getColumn(move) == 4);
+    assertEquals("Fails upon the winning score",
+        AlphaBetaSearch.WIN_SCORE - 1, search.getScore());
+  }
+
+  public void testSearchForOnLargeGravityBoard() {
+    Board board = new MultiWordBitBoard(15, 15, new GravityTokenMove());
+    AlphaBetaSearch search = new AlphaBetaSearch(board);
+
+    board.makeMove(Token.YELLOW, 7, 7);
+    assertTrue("Fails upon a legal move",
+        search.searchFor(Token.RED, 100) != Move.NONE);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import utils.BoardUtils;
+import junit.framework.TestCase;
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.Token;
+import logic.strategy.ConnectFourTokenMove;
+
+public class LazySmpSearchTest extends TestCase {
+
+  public void testSearchToDepth() {
+    LazySmpSearch search = createSearch(new BitBoard(7, 6,
+        new ConnectFourTokenMove()), 4);
+    int move = search.searchFor(Token.YELLOW, Long.MAX_VALUE, 9);
+
+    assertTrue("Fails upon a legal move", move != Move.NONE);
+    assertTrue("Fails upon the completed depth", search.getDepth() >= 9);
+    assertTrue("Fails upon the nodes of every thread",
+        search.getNodes() >= search.getMainSearch().getNodes());
+    assertEquals("Fails upon the restored board", new BitBoard(7, 6,
+        new ConnectFourTokenMove()), search.getBoard());
+    search.shutdown();
+  }
+
+  public void testFindsWin() {
+    String grid[] = { "       ", "       ", "       ", "       ", " R R   ",
+        " YYY R " };
+
+    Board board = BoardUtils.buildBoard(grid, 7, 6, new ConnectFourTokenMove());
+    LazySmpSearch search = createSearch(board, 3);
+    int move = search.searchFor(Token.YELLOW, 200);
+
+    assertTrue("Fails upon the winning move", Move.getColumn(move) == 0
+        || Move.getColumn(move) == 4);
+    search.shutdown();
+  }
+
+  private LazySmpSearch createSearch(Board board, int threads) {
+    TranspositionTable table = new TranspositionTable(4);
+    AlphaBetaSearch main = new AlphaBetaSearch(board);
+    AlphaBetaSearch[] helpers = new AlphaBetaSearch[threads - 1];
+
+    main.setTranspositionTable(table);
+    for (int i = 0; i < helpers.length; i++) {
+      helpers[i] = new AlphaBetaSearch(new BitBoard(7, 6,
+          new ConnectFourTokenMove()));
+      helpers[i].setTranspositionTable(table);
+    }
+    return new LazySmpSearch(main, helpers);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.Token;
+import logic.strategy.PopOutTokenMove;
+
+public class MonteCarloSearchTest extends TestCase {
+
+  public void testWinsAtOnce() {
+    Board board = new BitBoard(4, 7, new PopOutTokenMove());
+    MonteCarloSearch search = new MonteCarloSearch(board,
+        new PopOutPlayout(), 100000);
+
+    board.makeMove(Token.YELLOW, 0, 0);
+    board.makeMove(Token.RED, 0, 0);
+    board.makeMove(Token.YELLOW, 1, 0);
+    board.makeMove(Token.RED, 1, 0);
+    board.makeMove(Token.YELLOW, 2, 0);
+    board.makeMove(Token.RED, 2, 0);
+    search.setSeed(7);
+    search.setIterationLimit(5000);
+
+    assertEquals("Fails upon the winning move", 3, Move.getColumn(search
+        .searchFor(Token.YELLOW, Long.MAX_VALUE)));
+  }
+
+  public void testIterationLimit() {
+    Board board = new BitBoard(4, 7, new PopOutTokenMove());
+    MonteCarloSearch search = new MonteCarloSearch(board,
+        new PopOutPlayout(), 100000);
+
+    search.setIterationLimit(1000);
+    assertTrue("Fails upon a legal move", search.searchFor(Token.YELLOW,
+        Long.MAX_VALUE) != Move.NONE);
+    assertEquals("Fails upon the iterations", 1000, search.getNodes());
+    assertTrue("Fails upon the tree", search.getDepth() > 1);
+    assertEquals("Fails upon the restored board", new BitBoard(4, 7,
+        new PopOutTokenMove()), board);
+  }
+
+  public void testReproducible() {
+    MonteCarloSearch search = new MonteCarloSearch(new BitBoard(4, 7,
+        new PopOutTokenMove()), new PopOutPlayout(), 100000);
+
+    search.setIterationLimit(2000);
+    search.setSeed(11);
+    int move = search.searchFor(Token.YELLOW, Long.MAX_VALUE);
+    int score = search.getScore();
+
+    search.setSeed(11);
+    assertEquals("Fails upon the same move", move, search.searchFor(
+        Token.YELLOW, Long.MAX_VALUE));
+    assertEquals("Fails upon the same score", score, search.getScore());
+  }
+
+  // The bitboard playouts pick the same columns as the board playouts, so
+  // both must agree on the pushed columns and on the winners
+  public void testPlayoutsFollowTheRules() {
+    Random random = new Random(5);
+    Playout fast = new PopOutPlayout();
+    Playout slow = new RandomPlayout();
+
+    for (int position = 0; position < 50; position++) {
+      Board board = new BitBoard(4, 7, new PopOutTokenMove());
+      Token turn = Token.YELLOW;
+
+      for (int move = 0; move < random.nextInt(40); move++) {
+        board.makeMove(turn, random.nextInt(4), 0);
+        turn = turn.getOpposite();
+      }
+      Board copy = board.copy();
+
+      for (int seed = 1; seed <= 20; seed++) {
+        assertEquals("Fails upon the winner", slow.play(board, turn,
+            new XorShiftRandom(seed)), fast.play(board, turn,
+            new XorShiftRandom(seed)));
+      }
+      assertEquals("Fails upon the restored board", copy, board);
+    }
+  }
+}
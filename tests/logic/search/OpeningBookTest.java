@@ -0,0 +1,108 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SortedMap;
+
+import junit.framework.TestCase;
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.Token;
+import logic.strategy.ConnectFourTokenMove;
+
+public class OpeningBookTest extends TestCase {
+
+  private static OpeningBook _book;
+  private static int _entries;
+
+  protected void setUp() throws IOException {
+    if (_book == null) {
+      File file = File.createTempFile("book", ".bin");
+      SortedMap<Long, int[]> entries = new OpeningBookGenerator(6, 1)
+          .generate(2);
+
+      file.deleteOnExit();
+      OpeningBook.write(file, entries);
+      _book = OpeningBook.open(file);
+      _entries = entries.size();
+    }
+  }
+
+  public void testSize() {
+    // The empty board, 4 first moves and 25 answers up to mirror images
+    assertEquals("Fails upon the records", _entries, _book.size());
+    assertEquals("Fails upon the positions", 1 + 4 + 25, _book.size());
+  }
+
+  public void testMirroredPositions() {
+    for (int first = 0; first < 7; first++) {
+      for (int second = 0; second < 7; second++) {
+        Board board = createBoard();
+        Board mirror = createBoard();
+
+        board.makeMove(Token.YELLOW, first, 0);
+        board.makeMove(Token.RED, second, 0);
+        mirror.makeMove(Token.YELLOW, 6 - first, 0);
+        mirror.makeMove(Token.RED, 6 - second, 0);
+
+        int move = _book.probe(board, Token.YELLOW);
+        int mirrorMove = _book.probe(mirror, Token.YELLOW);
+
+        assertTrue("Fails upon a legal move", move != Move.NONE
+            && !board.isColumnFull(Move.getColumn(move)));
+        assertEquals("Fails upon the mirrored move", 6 - Move.getColumn(move),
+            Move.getColumn(mirrorMove));
+        assertEquals("Fails upon the score", _book.getScore(board,
+            Token.YELLOW), _book.getScore(mirror, Token.YELLOW));
+      }
+    }
+  }
+
+  public void testMissingPositions() {
+    Board board = createBoard();
+
+    assertTrue("Fails upon the empty board", _book.probe(board,
+        Token.YELLOW) != Move.NONE);
+    assertEquals("Fails upon the color to move", Move.NONE, _book.probe(
+        board, Token.RED));
+
+    board.makeMove(Token.YELLOW, 3, 0);
+    board.makeMove(Token.RED, 3, 0);
+    board.makeMove(Token.YELLOW, 3, 0);
+    assertEquals("Fails upon a deeper position", Move.NONE, _book.probe(
+        board, Token.RED));
+    assertEquals("Fails upon the score", OpeningBook.NO_SCORE, _book
+        .getScore(board, Token.RED));
+  }
+
+  private Board createBoard() {
+    return new BitBoard(7, 6, new ConnectFourTokenMove());
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.Token;
+import logic.strategy.PopOutTokenMove;
+
+// Solved on a 4x4 board, which takes a fraction of a second
+public class PopOutTableTest extends TestCase {
+
+  private static File _file;
+  private static PopOutTable _table;
+
+  protected void setUp() throws IOException {
+    if (_table == null) {
+      _file = File.createTempFile("popout", ".bin");
+      _file.deleteOnExit();
+      _table = PopOutTable.generate(_file, 4, 4);
+    }
+  }
+
+  // A full width search finds the same wins and losses in the same plies
+  public void testSameAsSearch() {
+    Random random = new Random(2);
+    int positions = 0;
+
+    while (positions < 50) {
+      Board board = createRandomBoard(random);
+      Token turn = random.nextBoolean() ? Token.YELLOW : Token.RED;
+      int value = _table.getValue(board, turn);
+
+      if (isOver(board) || value == PopOutTable.DRAW
+          || PopOutTable.getDistance(value) > 6) {
+        continue;
+      }
+
+      AlphaBetaSearch search = new AlphaBetaSearch(board);
+      int distance = PopOutTable.getDistance(value);
+
+      search.search(turn, distance + 1);
+      assertEquals("Fails upon the winner", PopOutTable.isWin(value), search
+          .getScore() > 0);
+      assertEquals("Fails upon the distance", distance,
+          AlphaBetaSearch.WIN_SCORE - Math.abs(search.getScore()));
+      positions++;
+    }
+  }
+
+  // Following the table wins in the plies it tells at most, whatever the
+  // other color plays
+  public void testBestMoveWins() {
+    Random random = new Random(4);
+    int positions = 0;
+
+    while (positions < 50) {
+      Board board = createRandomBoard(random);
+      Token turn = Token.YELLOW;
+      int value = _table.getValue(board, turn);
+
+      if (isOver(board) || !PopOutTable.isWin(value)) {
+        continue;
+      }
+
+      int distance = PopOutTable.getDistance(value);
+      for (int ply = 0; ply < distance && !isOver(board); ply++) {
+        int column = turn == Token.YELLOW ? Move.getColumn(_table.bestMove(
+            board, turn)) : random.nextInt(4);
+
+        board.makeMove(turn, column, 0);
+        turn = turn.getOpposite();
+      }
+      assertTrue("Fails upon the win", board.fourTokensConnected(Token.YELLOW)
+          && !board.fourTokensConnected(Token.RED));
+      positions++;
+    }
+  }
+
+  public void testOtherSize() {
+    try {
+      PopOutTable.open(_file, 4, 5);
+      fail("Fails upon a table of another size");
+    } catch (IOException e) {
+    }
+  }
+
+  private Board createRandomBoard(Random random) {
+    Board board = new BitBoard(4, 4, new PopOutTokenMove());
+    Token turn = Token.YELLOW;
+
+    for (int i = random.nextInt(24); i > 0; i--) {
+      board.makeMove(turn, random.nextInt(4), 0);
+      turn = turn.getOpposite();
+    }
+    return board;
+  }
+
+  private boolean isOver(Board board) {
+    return board.fourTokensConnected(Token.YELLOW) != board
+        .fourTokensConnected(Token.RED);
+  }
+}
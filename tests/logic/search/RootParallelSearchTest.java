@@ -0,0 +1,76 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import junit.framework.TestCase;
+import logic.Board;
+import logic.Move;
+import logic.MultiWordBitBoard;
+import logic.Token;
+import logic.strategy.GravityTokenMove;
+
+public class RootParallelSearchTest extends TestCase {
+
+  public void testAddsUpTheTrees() {
+    RootParallelSearch search = createSearch(3, 1000);
+
+    search.setSeed(3);
+    assertTrue("Fails upon a legal move", search.searchFor(Token.YELLOW,
+        Long.MAX_VALUE) != Move.NONE);
+    assertEquals("Fails upon the iterations", 3000, search.getNodes());
+    search.shutdown();
+  }
+
+  public void testReproducible() {
+    RootParallelSearch search = createSearch(3, 1000);
+
+    search.setSeed(5);
+    int move = search.searchFor(Token.YELLOW, Long.MAX_VALUE);
+    int score = search.getScore();
+
+    search.setSeed(5);
+    assertEquals("Fails upon the same move", move, search.searchFor(
+        Token.YELLOW, Long.MAX_VALUE));
+    assertEquals("Fails upon the same score", score, search.getScore());
+    search.shutdown();
+  }
+
+  private RootParallelSearch createSearch(int threads, int iterations) {
+    MonteCarloSearch[] searches = new MonteCarloSearch[threads];
+
+    for (int i = 0; i < threads; i++) {
+      Board board = new MultiWordBitBoard(9, 9, 4, new GravityTokenMove());
+
+      searches[i] = new MonteCarloSearch(board, new GravityPlayout(), 1 << 16);
+      searches[i].setIterationLimit(iterations);
+    }
+
+    MonteCarloSearch[] helpers = new MonteCarloSearch[threads - 1];
+    System.arraycopy(searches, 1, helpers, 0, helpers.length);
+    return new RootParallelSearch(searches[0], helpers);
+  }
+}
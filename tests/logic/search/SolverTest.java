@@ -0,0 +1,151 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.Token;
+import logic.strategy.ConnectFourTokenMove;
+
+public class SolverTest extends TestCase {
+
+  // A full width search to the end of the game tells the same winner and
+  // the same plies to the winning token
+  public void testSameAsFullSearch() {
+    Random random = new Random(3);
+    Solver solver = new Solver(16);
+    int[] moves = new int[42];
+    int positions = 0;
+
+    while (positions < 10) {
+      Board board = createBoard();
+      Token turn = Token.YELLOW;
+      boolean over = false;
+
+      for (int i = 0; i < 30 && !over; i++) {
+        int move = moves[random.nextInt(board.legalMoves(moves))];
+
+        board.makeMove(turn, Move.getColumn(move), 0);
+        over = board.fourTokensConnected(turn);
+        turn = turn.getOpposite();
+      }
+      if (over) {
+        continue;
+      }
+
+      AlphaBetaSearch search = new AlphaBetaSearch(board.copy());
+      search.search(turn, 42 - board.getTokens());
+      int expected = search.getScore();
+      int score = solver.solve(board, turn);
+
+      assertEquals("Fails upon the winner", Integer.signum(expected),
+          Integer.signum(score));
+      if (score != 0) {
+        assertEquals("Fails upon the distance", AlphaBetaSearch.WIN_SCORE
+            - Math.abs(expected), solver.getDistance());
+      }
+      positions++;
+    }
+  }
+
+  public void testBestMove() {
+    Board board = createBoard();
+
+    board.makeMove(Token.YELLOW, 3, 0);
+    board.makeMove(Token.RED, 3, 0);
+    board.makeMove(Token.YELLOW, 4, 0);
+    board.makeMove(Token.RED, 4, 0);
+    board.makeMove(Token.YELLOW, 5, 0);
+    board.makeMove(Token.RED, 5, 0);
+
+    Solver solver = new Solver(16);
+    int move = solver.bestMove(board, Token.YELLOW);
+
+    // Both ends win at once, the center one is preferred
+    assertEquals("Fails upon the winning move", 2, Move.getColumn(move));
+    assertEquals("Fails upon the score", 18, solver.getScore());
+    assertEquals("Fails upon the distance", 1, solver.getDistance());
+  }
+
+  public void testMidGame() {
+    Board board = createBoard();
+    Token turn = Token.YELLOW;
+    String sequence = "334667521712";
+
+    for (int i = 0; i < sequence.length(); i++) {
+      board.makeMove(turn, sequence.charAt(i) - '1', 0);
+      turn = turn.getOpposite();
+    }
+
+    Solver solver = new Solver(16);
+    int score = solver.solve(board, turn);
+
+    assertTrue("Fails upon a legal move", solver.bestMove(board, turn)
+        != Move.NONE);
+    assertEquals("Fails upon the score of the best move", score, solver
+        .getScore());
+  }
+
+  // The empty board takes far more nodes, and giving up on it leaves the
+  // table good for the positions that follow
+  public void testNodeLimit() {
+    Board board = createBoard();
+    Solver solver = new Solver(16);
+
+    solver.setNodeLimit(10000);
+    assertEquals("Fails upon the move given up", Move.NONE, solver.bestMove(
+        board, Token.YELLOW));
+    assertTrue("Fails upon the abort", solver.isAborted());
+
+    board.makeMove(Token.YELLOW, 3, 0);
+    board.makeMove(Token.RED, 3, 0);
+    board.makeMove(Token.YELLOW, 4, 0);
+    board.makeMove(Token.RED, 4, 0);
+    board.makeMove(Token.YELLOW, 5, 0);
+    board.makeMove(Token.RED, 5, 0);
+    assertEquals("Fails upon the winning move", 2, Move.getColumn(solver
+        .bestMove(board, Token.YELLOW)));
+    assertFalse("Fails upon the position solved", solver.isAborted());
+  }
+
+  public void testOtherBoards() {
+    try {
+      new Solver(1).solve(new BitBoard(6, 6, new ConnectFourTokenMove()),
+          Token.YELLOW);
+      fail("Fails upon a board of another size");
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+  private Board createBoard() {
+    return new BitBoard(7, 6, new ConnectFourTokenMove());
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import junit.framework.TestCase;
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.Token;
+import logic.strategy.ConnectFourTokenMove;
+
+public class TranspositionTableTest extends TestCase {
+
+  public void testStoreAndProbe() {
+    TranspositionTable table = new TranspositionTable(1);
+    long key = 0x123456789abcdefL;
+
+    assertEquals("Fails upon an empty table", 0L, table.probe(key));
+
+    table.store(key, 12, TranspositionTable.LOWER_BOUND, Move.encode(3, 5),
+        -4321);
+    long data = table.probe(key);
+
+    assertEquals("Fails upon the score", -4321,
+        TranspositionTable.getScore(data));
+    assertEquals("Fails upon the move", Move.encode(3, 5),
+        TranspositionTable.getMove(data));
+    assertEquals("Fails upon the depth", 12, TranspositionTable.getDepth(data));
+    assertEquals("Fails upon the bound", TranspositionTable.LOWER_BOUND,
+        TranspositionTable.getBound(data));
+    assertEquals("Fails upon another key", 0L, table.probe(key + 1));
+
+    table.store(key, 3, TranspositionTable.EXACT, Move.NONE, 0);
+    assertEquals("Fails upon no move", Move.NONE,
+        TranspositionTable.getMove(table.probe(key)));
+  }
+
+  public void testReplacement() {
+    TranspositionTable table = new TranspositionTable(1);
+    long buckets = table.getBuckets();
+    long deep = 5L, shallow = 5L + buckets, latest = 5L + 2 * buckets;
+
+    table.store(deep, 10, TranspositionTable.EXACT, Move.NONE, 1);
+    table.store(shallow, 2, TranspositionTable.EXACT, Move.NONE, 2);
+    assertTrue("Fails upon the deepest entry", table.probe(deep) != 0L);
+    assertTrue("Fails upon the latest entry", table.probe(shallow) != 0L);
+
+    table.store(latest, 1, TranspositionTable.EXACT, Move.NONE, 3);
+    assertTrue("Fails upon keeping the deepest entry",
+        table.probe(deep) != 0L);
+    assertEquals("Fails upon replacing the latest entry", 0L,
+        table.probe(shallow));
+    assertTrue("Fails upon the new entry", table.probe(latest) != 0L);
+  }
+
+  public void testNewSearch() {
+    TranspositionTable table = new TranspositionTable(1);
+    long buckets = table.getBuckets();
+    long deep = 5L, shallow = 5L + buckets, latest = 5L + 2 * buckets;
+
+    table.store(deep, 10, TranspositionTable.EXACT, Move.NONE, 1);
+    table.store(shallow, 2, TranspositionTable.EXACT, Move.NONE, 2);
+    table.newSearch();
+    table.store(latest, 1, TranspositionTable.EXACT, Move.NONE, 3);
+
+    assertEquals("Fails upon replacing the old deepest entry", 0L, table
+        .probe(deep));
+    assertTrue("Fails upon keeping the latest entry",
+        table.probe(shallow) != 0L);
+    assertTrue("Fails upon the new entry", table.probe(latest) != 0L);
+  }
+
+  public void testSearchWithTable() {
+    Board board = new BitBoard(7, 6, new ConnectFourTokenMove());
+    AlphaBetaSearch plain = new AlphaBetaSearch(board);
+    AlphaBetaSearch cached = new AlphaBetaSearch(new BitBoard(7, 6,
+        new ConnectFourTokenMove()));
+
+    cached.setTranspositionTable(new TranspositionTable(4));
+    plain.search(Token.YELLOW, 8);
+    cached.search(Token.YELLOW, 8);
+
+    assertEquals("Fails upon the score", plain.getScore(), cached.getScore());
+    assertTrue("Fails upon the searched nodes",
+        cached.getNodes() < plain.getNodes());
+  }
+}
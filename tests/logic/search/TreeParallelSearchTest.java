@@ -0,0 +1,91 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import junit.framework.TestCase;
+import logic.Board;
+import logic.Move;
+import logic.MultiWordBitBoard;
+import logic.Token;
+import logic.strategy.GravityTokenMove;
+
+public class TreeParallelSearchTest extends TestCase {
+
+  public void testWinsAtOnce() {
+    TreeParallelSearch search = createSearch(4);
+    Board board = search.getBoard();
+
+    // Three yellow tokens against the top wall, the fourth lands at (3,0)
+    board.makeMove(Token.YELLOW, 0, 0);
+    board.makeMove(Token.RED, 0, 14);
+    board.makeMove(Token.YELLOW, 1, 0);
+    board.makeMove(Token.RED, 1, 14);
+    board.makeMove(Token.YELLOW, 2, 0);
+    board.makeMove(Token.RED, 2, 14);
+    search.setIterationLimit(20000);
+
+    int move = search.searchFor(Token.YELLOW, Long.MAX_VALUE);
+    int landing = new GravityTokenMove().computeLanding(board, Move
+        .getColumn(move), Move.getRow(move));
+
+    assertEquals("Fails upon the winning move", Move.encode(3, 0), landing);
+    search.shutdown();
+  }
+
+  public void testIterationLimit() {
+    TreeParallelSearch search = createSearch(4);
+
+    search.setIterationLimit(3000);
+    assertTrue("Fails upon a legal move", search.searchFor(Token.YELLOW,
+        Long.MAX_VALUE) != Move.NONE);
+    assertEquals("Fails upon the iterations", 3000, search.getNodes());
+    assertTrue("Fails upon the tree", search.getTreeSize() > 1);
+    assertEquals("Fails upon the restored board", new MultiWordBitBoard(15,
+        15, 4, new GravityTokenMove()), search.getBoard());
+    search.shutdown();
+  }
+
+  public void testSearchFor() {
+    TreeParallelSearch search = createSearch(2);
+
+    assertTrue("Fails upon a legal move", search.searchFor(Token.RED, 100)
+        != Move.NONE);
+    assertTrue("Fails upon the iterations", search.getNodes() > 0);
+    search.shutdown();
+  }
+
+  private TreeParallelSearch createSearch(int threads) {
+    Board[] boards = new Board[threads];
+    Playout[] playouts = new Playout[threads];
+
+    for (int i = 0; i < threads; i++) {
+      boards[i] = new MultiWordBitBoard(15, 15, 4, new GravityTokenMove());
+      playouts[i] = new GravityPlayout();
+    }
+    return new TreeParallelSearch(boards, playouts, 1 << 18);
+  }
+}
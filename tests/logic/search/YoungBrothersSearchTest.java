@@ -0,0 +1,103 @@
+/*
+ *  This program developed in Java contains three versions of the class Connect4 board game:
+ *    - Connect4
+ *    - PopOut
+ *    - Gravity
+ *  Further information about the rules and features can be found here:
+ *  http://en.wikipedia.org/wiki/Connect_Four
+ *    
+ *  Likewise, it allows users to play against other users or against a computer player.
+ *  Last but not least, it is available in both graphic and console mode.
+ *    
+ *  Copyright (C) 2015  Javier Salcedo
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package logic.search;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import logic.BitBoard;
+import logic.Board;
+import logic.Move;
+import logic.Token;
+import logic.strategy.ConnectFourTokenMove;
+import logic.strategy.PopOutTokenMove;
+import logic.strategy.TokenMoveStrategy;
+
+public class YoungBrothersSearchTest extends TestCase {
+
+  public void testSameAsAlphaBetaInConnectFour() {
+    compareRandomPositions(7, 6, new ConnectFourTokenMove(), 7);
+  }
+
+  public void testSameAsAlphaBetaInPopOut() {
+    compareRandomPositions(4, 7, new PopOutTokenMove(), 6);
+  }
+
+  public void testReproducible() {
+    Board board = new BitBoard(7, 6, new ConnectFourTokenMove());
+    YoungBrothersSearch search = new YoungBrothersSearch(board, 4);
+
+    board.makeMove(Token.YELLOW, 3, 0);
+    board.makeMove(Token.RED, 2, 0);
+    int move = search.search(Token.YELLOW, 8);
+    int score = search.getScore();
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals("Fails upon the same move", move, search.search(
+          Token.YELLOW, 8));
+      assertEquals("Fails upon the same score", score, search.getScore());
+    }
+    search.shutdown();
+  }
+
+  public void testSearchFor() {
+    Board board = new BitBoard(7, 6, new ConnectFourTokenMove());
+    YoungBrothersSearch search = new YoungBrothersSearch(board, 2);
+
+    assertTrue("Fails upon a legal move",
+        search.searchFor(Token.YELLOW, 100) != Move.NONE);
+    assertTrue("Fails upon the completed depth", search.getDepth() > 0);
+    assertEquals("Fails upon the restored board", new BitBoard(7, 6,
+        new ConnectFourTokenMove()), board);
+    search.shutdown();
+  }
+
+  private void compareRandomPositions(int width, int height,
+      TokenMoveStrategy strategy, int depth) {
+    Random random = new Random(13);
+
+    for (int position = 0; position < 5; position++) {
+      Board board = new BitBoard(width, height, strategy);
+      Token turn = Token.YELLOW;
+
+      for (int move = 0; move < 6; move++) {
+        if (board.makeMove(turn, random.nextInt(width), 0) != Move.NONE) {
+          turn = turn.getOpposite();
+        }
+      }
+
+      AlphaBetaSearch serial = new AlphaBetaSearch(board.copy());
+      YoungBrothersSearch parallel = new YoungBrothersSearch(board.copy(), 4);
+
+      serial.search(turn, depth);
+      parallel.search(turn, depth);
+      assertEquals("Fails upon the score", serial.getScore(),
+          parallel.getScore());
+      parallel.shutdown();
+    }
+  }
+}
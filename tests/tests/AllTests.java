@@ -33,9 +33,25 @@ import logic.ConnectFourTokenMoveTest;
 import logic.GravityTokenMoveTest;
 import logic.TokenTest;
 import logic.BoardTest;
+import logic.BitBoardTest;
+import logic.MultiWordBitBoardTest;
+import logic.LineTableTest;
+import logic.PositionTest;
 import logic.game.PopOutGameTest;
+import logic.player.ComputerPlayerTest;
+import logic.search.AlphaBetaSearchTest;
+import logic.search.LazySmpSearchTest;
+import logic.search.MonteCarloSearchTest;
+import logic.search.OpeningBookTest;
+import logic.search.PopOutTableTest;
+import logic.search.SolverTest;
+import logic.search.RootParallelSearchTest;
+import logic.search.YoungBrothersSearchTest;
+import logic.search.TranspositionTableTest;
+import logic.search.TreeParallelSearchTest;
 import logic.game.ConnectFourGameTest;
 import logic.game.GravityGameTest;
+import logic.game.ConnectNGameTest;
 
 public class AllTests {
 
@@ -46,10 +62,26 @@ public class AllTests {
     suite.addTestSuite(ConnectFourGameTest.class);
     suite.addTestSuite(PopOutGameTest.class);
     suite.addTestSuite(GravityGameTest.class);
+    suite.addTestSuite(ConnectNGameTest.class);
     suite.addTestSuite(ConnectFourTokenMoveTest.class);
     suite.addTestSuite(PopOutTokenMoveTest.class);
     suite.addTestSuite(GravityTokenMoveTest.class);
     suite.addTestSuite(BoardTest.class);
+    suite.addTestSuite(BitBoardTest.class);
+    suite.addTestSuite(MultiWordBitBoardTest.class);
+    suite.addTestSuite(LineTableTest.class);
+    suite.addTestSuite(PositionTest.class);
+    suite.addTestSuite(AlphaBetaSearchTest.class);
+    suite.addTestSuite(TranspositionTableTest.class);
+    suite.addTestSuite(LazySmpSearchTest.class);
+    suite.addTestSuite(MonteCarloSearchTest.class);
+    suite.addTestSuite(OpeningBookTest.class);
+    suite.addTestSuite(PopOutTableTest.class);
+    suite.addTestSuite(SolverTest.class);
+    suite.addTestSuite(RootParallelSearchTest.class);
+    suite.addTestSuite(TreeParallelSearchTest.class);
+    suite.addTestSuite(YoungBrothersSearchTest.class);
+    suite.addTestSuite(ComputerPlayerTest.class);
     return suite;
   }
 }